@@ -2,6 +2,7 @@ package com.game.taptap;
 
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
@@ -9,6 +10,8 @@ import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import com.game.taptap.debug.FlightEvents;
+import com.game.taptap.debug.FrameProfiler;
 import com.game.taptap.screens.PresentacionUniversidad;
 import com.game.taptap.screens.MainMenuScreen;
 
@@ -16,6 +19,7 @@ public class TapTapGame extends Game {
     public SpriteBatch batch;
     public BitmapFont font;
     public AssetManager assetManager;
+    public FrameProfiler profiler;
     
     // Constantes para los assets
     public static final String MENU_BACKGROUND = "menu_background.png";
@@ -43,6 +47,7 @@ public class TapTapGame extends Game {
     @Override
     public void create() {
         batch = new SpriteBatch();
+        profiler = new FrameProfiler();
         assetManager = new AssetManager();
         
         loadMenuAssets();
@@ -137,16 +142,31 @@ public class TapTapGame extends Game {
         assetManager.finishLoading();
     }
     
+    // Cambio de pantalla registrado como evento JFR (incluye el hide() y show() de las pantallas)
+    @Override
+    public void setScreen(Screen screen) {
+        Object transitionEvent = FlightEvents.beginScreenTransition(
+            getScreen() == null ? "none" : getScreen().getClass().getSimpleName(),
+            screen == null ? "none" : screen.getClass().getSimpleName());
+        super.setScreen(screen);
+        FlightEvents.endScreenTransition(transitionEvent);
+    }
+    
     // Renderizar el juego y elimina la memoria
+    // El perfilador mide el frame completo de la pantalla activa y dibuja su overlay encima (F3)
     @Override
     public void render() {
+        profiler.beginFrame();
         super.render();
+        profiler.endFrame();
+        profiler.drawOverlay(batch, font);
     }
     
     @Override
     public void dispose() {
         batch.dispose();
         font.dispose();
+        profiler.dispose();
         assetManager.dispose();
     }
 }
@@ -0,0 +1,77 @@
+package com.game.taptap.debug;
+
+// Medidor de memoria reservada por frame en régimen estable para un hilo.
+// Se llama a frame() una vez por frame: los primeros warmupFrames se descartan (carga de
+// clases, JIT, buffers que crecen una sola vez) y del resto se guarda el total, el
+// máximo y cuántos frames reservaron algo. No crea objetos.
+public class AllocationMeter {
+    // Con -Dtaptap.debug=true (./gradlew lwjgl3:run -Pdebug) las pantallas miden y reportan
+    public static final boolean DEBUG = Boolean.getBoolean("taptap.debug");
+
+    private final long threadId;
+    private final boolean currentThread;
+    private final int warmupFrames;
+    private long lastBytes = -1L;
+    private long frames;
+    private long steadyFrames;
+    private long steadyBytes;
+    private long maxBytes;
+    private long allocatingFrames;
+
+    // Mide el hilo que lo crea
+    public AllocationMeter(int warmupFrames) {
+        this(Thread.currentThread(), warmupFrames);
+    }
+
+    public AllocationMeter(Thread thread, int warmupFrames) {
+        this.threadId = thread.getId();
+        this.currentThread = thread == Thread.currentThread();
+        this.warmupFrames = warmupFrames;
+    }
+
+    public static boolean isSupported() {
+        return ThreadAllocation.isSupported();
+    }
+
+    // Vuelve a empezar, incluido el calentamiento
+    public void reset() {
+        lastBytes = -1L;
+        frames = 0L;
+        steadyFrames = 0L;
+        steadyBytes = 0L;
+        maxBytes = 0L;
+        allocatingFrames = 0L;
+    }
+
+    // Cierra el frame anterior y abre el siguiente
+    public void frame() {
+        long now = currentThread ? ThreadAllocation.currentThreadBytes() : ThreadAllocation.threadBytes(threadId);
+        long previous = lastBytes;
+        lastBytes = now;
+        if (previous < 0 || now < 0) return;
+
+        frames++;
+        if (frames <= warmupFrames) return;
+
+        long bytes = currentThread ? ThreadAllocation.between(previous, now) : now - previous;
+        steadyFrames++;
+        steadyBytes += bytes;
+        if (bytes > maxBytes) maxBytes = bytes;
+        if (bytes > 0) allocatingFrames++;
+    }
+
+    public long getSteadyFrames() { return steadyFrames; }
+    public long getSteadyBytes() { return steadyBytes; }
+    public long getMaxBytes() { return maxBytes; }
+    public long getAllocatingFrames() { return allocatingFrames; }
+
+    public double getAverageBytes() {
+        return steadyFrames == 0 ? 0.0 : steadyBytes / (double) steadyFrames;
+    }
+
+    // Resumen de una línea para el log
+    public String summary(String label) {
+        return String.format("%s: %.1f B/frame avg, %d B max, %d/%d frames allocating (after %d warm-up frames)",
+            label, getAverageBytes(), maxBytes, allocatingFrames, steadyFrames, warmupFrames);
+    }
+}
@@ -0,0 +1,68 @@
+package com.game.taptap.debug;
+
+// Fachada de los eventos JFR del juego (frames, juicios, cargas de assets, beatmaps y
+// cambios de pantalla). Con una grabación activa, por ejemplo
+//   java -XX:StartFlightRecording=filename=taptap.jfr ...
+// los eventos quedan en la misma línea de tiempo que las pausas del GC y el JIT.
+// En JVMs sin jdk.jfr todos los métodos son no-ops y JfrEvents nunca se carga; sin una
+// grabación en marcha cada llamada es solo una lectura de un booleano.
+public final class FlightEvents {
+    private static final boolean AVAILABLE = detect();
+
+    private FlightEvents() {}
+
+    private static boolean detect() {
+        try {
+            Class.forName("jdk.jfr.FlightRecorder");
+            return JfrEvents.isAvailable();
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    private static boolean recording() {
+        return AVAILABLE && JfrEvents.isRecorderInitialized();
+    }
+
+    public static void frameBegin() {
+        if (recording()) JfrEvents.frameBegin();
+    }
+
+    public static void frameEnd(long frameNumber, long allocatedBytes) {
+        if (recording()) JfrEvents.frameEnd(frameNumber, allocatedBytes);
+    }
+
+    // offsetSeconds = tiempo de golpe - tiempo de la nota (0 en los fallos por ventana)
+    public static void judgement(int lane, int note, String result, float offsetSeconds, float songTime) {
+        if (recording()) JfrEvents.judgement(lane, note, result, offsetSeconds, songTime);
+    }
+
+    // Los begin devuelven un identificador opaco, o null si el evento no se está grabando
+    public static Object beginAssetLoad() {
+        return recording() ? JfrEvents.beginAssetLoad() : null;
+    }
+
+    public static void endAssetLoad(Object handle, String path, String type, long bytes) {
+        if (handle != null) JfrEvents.endAssetLoad(handle, path, type, bytes);
+    }
+
+    public static Object beginBeatmapParse() {
+        return recording() ? JfrEvents.beginBeatmapParse() : null;
+    }
+
+    public static void endBeatmapParse(Object handle, String path, int notes, boolean success) {
+        if (handle != null) JfrEvents.endBeatmapParse(handle, path, notes, success);
+    }
+
+    public static Object beginScreenTransition(String from, String to) {
+        return recording() ? JfrEvents.beginScreenTransition(from, to) : null;
+    }
+
+    public static void endScreenTransition(Object handle) {
+        if (handle != null) JfrEvents.endScreenTransition(handle);
+    }
+}
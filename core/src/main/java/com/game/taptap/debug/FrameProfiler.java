@@ -0,0 +1,246 @@
+package com.game.taptap.debug;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.Arrays;
+
+// Perfilador de frames para cualquier Screen, enganchado en TapTapGame.render.
+// Guarda en un buffer circular (últimos HISTORY frames) el tiempo total del frame, el de
+// cada fase marcada por la pantalla (actualización, teclas, campo de juego, notas, HUD), las
+// llamadas de dibujo, cambios de textura y de shader de GLProfiler y los bytes reservados.
+// F3 muestra/oculta el overlay con p50, p99 y máximo; F4 exporta el buffer a CSV.
+public class FrameProfiler implements Disposable {
+    // UPDATE incluye vaciar la cola de entradas de los carriles; CONTROLS es solo la consulta
+    // de teclas de la pantalla. El batch envía los quads al cambiar de textura o al terminar,
+    // así que parte del envío de una fase de dibujo cae en la siguiente.
+    public enum Phase { UPDATE, CONTROLS, PLAYFIELD, NOTES, HUD }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final int HISTORY = 600;
+    private static final int STATS_INTERVAL = 30;
+    private static final int TOGGLE_KEY = Input.Keys.F3;
+    private static final int EXPORT_KEY = Input.Keys.F4;
+    private static final float OVERLAY_LINE_HEIGHT = 18f;
+    // Filas de estadísticas: frame completo y luego una por fase
+    private static final int FRAME_ROW = 0;
+
+    private final long[] frameNanos = new long[HISTORY];
+    private final long[][] phaseNanos = new long[PHASES.length][HISTORY];
+    private final int[] drawCalls = new int[HISTORY];
+    private final int[] textureBindings = new int[HISTORY];
+    private final int[] shaderSwitches = new int[HISTORY];
+    private final long[] allocatedBytes = new long[HISTORY];
+    private int index;
+    private long recordedFrames;
+
+    private final long[] phaseStart = new long[PHASES.length];
+    private final long[] currentPhase = new long[PHASES.length];
+    private long frameStart;
+    private long frameAllocStart;
+
+    private final GLProfiler glProfiler;
+    private boolean visible;
+    private int framesSinceStats;
+    private final long[] scratch = new long[HISTORY];
+    private final long[][] stats = new long[PHASES.length + 1][3];
+    private long maxAllocated;
+    private final StringBuilder text = new StringBuilder(512);
+
+    public FrameProfiler() {
+        glProfiler = new GLProfiler(Gdx.graphics);
+    }
+
+    public void beginFrame() {
+        Arrays.fill(currentPhase, 0L);
+        frameAllocStart = ThreadAllocation.currentThreadBytes();
+        FlightEvents.frameBegin();
+        frameStart = System.nanoTime();
+    }
+
+    public void begin(Phase phase) {
+        phaseStart[phase.ordinal()] = System.nanoTime();
+    }
+
+    // Una fase puede marcarse varias veces en el mismo frame: los tiempos se suman
+    public void end(Phase phase) {
+        int p = phase.ordinal();
+        if (phaseStart[p] == 0L) return;
+        currentPhase[p] += System.nanoTime() - phaseStart[p];
+        phaseStart[p] = 0L;
+    }
+
+    public void endFrame() {
+        long now = System.nanoTime();
+        long allocated = ThreadAllocation.between(frameAllocStart, ThreadAllocation.currentThreadBytes());
+        FlightEvents.frameEnd(recordedFrames, allocated);
+
+        frameNanos[index] = now - frameStart;
+        for (int p = 0; p < PHASES.length; p++) {
+            phaseNanos[p][index] = currentPhase[p];
+        }
+        if (glProfiler.isEnabled()) {
+            drawCalls[index] = glProfiler.getDrawCalls();
+            textureBindings[index] = glProfiler.getTextureBindings();
+            shaderSwitches[index] = glProfiler.getShaderSwitches();
+        } else {
+            drawCalls[index] = -1;
+            textureBindings[index] = -1;
+            shaderSwitches[index] = -1;
+        }
+        allocatedBytes[index] = allocated;
+        index = (index + 1) % HISTORY;
+        recordedFrames++;
+
+        handleKeys();
+        if (visible && ++framesSinceStats >= STATS_INTERVAL) {
+            framesSinceStats = 0;
+            computeStats();
+        }
+    }
+
+    private void handleKeys() {
+        if (Gdx.input.isKeyJustPressed(TOGGLE_KEY)) {
+            setVisible(!visible);
+        }
+        if (Gdx.input.isKeyJustPressed(EXPORT_KEY)) {
+            exportCsv();
+        }
+    }
+
+    // El GLProfiler solo se activa con el overlay visible (intercepta todas las llamadas GL)
+    public void setVisible(boolean visible) {
+        this.visible = visible;
+        if (visible) {
+            glProfiler.enable();
+            glProfiler.reset();
+            framesSinceStats = 0;
+            computeStats();
+        } else {
+            glProfiler.disable();
+        }
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    private int sampleCount() {
+        return (int) Math.min(recordedFrames, HISTORY);
+    }
+
+    private void computeStats() {
+        int count = sampleCount();
+        if (count == 0) return;
+        percentiles(frameNanos, count, stats[FRAME_ROW]);
+        for (int p = 0; p < PHASES.length; p++) {
+            percentiles(phaseNanos[p], count, stats[p + 1]);
+        }
+        maxAllocated = 0L;
+        for (int i = 0; i < count; i++) {
+            maxAllocated = Math.max(maxAllocated, allocatedBytes[i]);
+        }
+    }
+
+    // p50, p99 y máximo sobre las muestras del buffer (ordena una copia preasignada)
+    private void percentiles(long[] samples, int count, long[] out) {
+        System.arraycopy(samples, 0, scratch, 0, count);
+        Arrays.sort(scratch, 0, count);
+        out[0] = scratch[(count - 1) * 50 / 100];
+        out[1] = scratch[(count - 1) * 99 / 100];
+        out[2] = scratch[count - 1];
+    }
+
+    // Dibuja el overlay con su propio begin/end; las estadísticas del GL se reinician aquí
+    // para que el próximo frame no cuente las llamadas del overlay
+    public void drawOverlay(Batch batch, BitmapFont font) {
+        if (!visible || font == null) return;
+
+        int last = (index + HISTORY - 1) % HISTORY;
+        text.setLength(0);
+        text.append("FRAME  p50 / p99 / max (ms)\n");
+        appendRow("total", stats[FRAME_ROW]);
+        for (int p = 0; p < PHASES.length; p++) {
+            appendRow(PHASES[p].name().toLowerCase(), stats[p + 1]);
+        }
+        text.append("draw calls ").append(drawCalls[last])
+            .append("  texturas ").append(textureBindings[last])
+            .append("  shaders ").append(shaderSwitches[last]).append('\n');
+        text.append("alloc/frame ").append(allocatedBytes[last])
+            .append(" B  (max ").append(maxAllocated).append(" B)\n");
+        text.append("F3 ocultar  F4 exportar CSV");
+
+        float previousScaleX = font.getData().scaleX;
+        float previousScaleY = font.getData().scaleY;
+        // Escala la fuente del juego a una altura de línea fija, sea cual sea su escala actual
+        font.getData().setScale(previousScaleY * OVERLAY_LINE_HEIGHT / font.getLineHeight());
+        font.setColor(Color.WHITE);
+        batch.begin();
+        font.draw(batch, text, 10f, Gdx.graphics.getHeight() - 100f);
+        batch.end();
+        font.getData().setScale(previousScaleX, previousScaleY);
+        glProfiler.reset();
+    }
+
+    private void appendRow(String name, long[] row) {
+        text.append(name).append("  ");
+        appendMillis(row[0]);
+        text.append(" / ");
+        appendMillis(row[1]);
+        text.append(" / ");
+        appendMillis(row[2]);
+        text.append('\n');
+    }
+
+    // Milisegundos con dos decimales usando solo enteros (no crea Strings)
+    private void appendMillis(long nanos) {
+        long hundredths = nanos / 10_000L;
+        text.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) text.append('0');
+        text.append(fraction);
+    }
+
+    // Escribe el buffer completo (del frame más antiguo al más reciente) en profiles/
+    public void exportCsv() {
+        int count = sampleCount();
+        StringBuilder csv = new StringBuilder(count * 64 + 128);
+        csv.append("frame,frame_ms");
+        for (Phase phase : PHASES) {
+            csv.append(',').append(phase.name().toLowerCase()).append("_ms");
+        }
+        csv.append(",draw_calls,texture_bindings,shader_switches,allocated_bytes\n");
+
+        long firstFrame = recordedFrames - count;
+        for (int i = 0; i < count; i++) {
+            int slot = (int) ((firstFrame + i) % HISTORY);
+            csv.append(firstFrame + i).append(',').append(frameNanos[slot] / 1e6);
+            for (int p = 0; p < PHASES.length; p++) {
+                csv.append(',').append(phaseNanos[p][slot] / 1e6);
+            }
+            csv.append(',').append(drawCalls[slot])
+                .append(',').append(textureBindings[slot])
+                .append(',').append(shaderSwitches[slot])
+                .append(',').append(allocatedBytes[slot]).append('\n');
+        }
+
+        try {
+            FileHandle file = Gdx.files.local("profiles/frames-" + System.currentTimeMillis() + ".csv");
+            file.writeString(csv.toString(), false);
+            System.out.println("Frame profile exported: " + file.path() + " (" + count + " frames)");
+        } catch (Exception e) {
+            System.err.println("Error exporting frame profile: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void dispose() {
+        glProfiler.disable();
+    }
+}
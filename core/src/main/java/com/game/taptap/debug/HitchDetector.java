@@ -0,0 +1,227 @@
+package com.game.taptap.debug;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+// Vigilante de tirones: guarda en un buffer circular preasignado los datos de cada frame
+// de los últimos segundos (duración, tiempo de canción, notas activas, eventos de entrada
+// y colecciones del GC). Cuando un frame supera el presupuesto copia la ventana a un
+// segundo buffer y un hilo aparte la escribe en hitches/ junto con un volcado de hilos.
+// Registrar un frame no crea objetos; solo el volcado (después del tirón) reserva memoria.
+public class HitchDetector implements Disposable {
+    // Presupuesto en milisegundos configurable con -Dtaptap.hitchBudgetMs=...
+    public static final String BUDGET_PROPERTY = "taptap.hitchBudgetMs";
+
+    // Frecuencia máxima de frames que cabe en la ventana sin perder datos
+    private static final int MAX_FRAME_RATE = 240;
+    // Tiempo mínimo entre dos volcados (un tirón suele venir acompañado de otros)
+    private static final long DUMP_COOLDOWN_NANOS = 10_000_000_000L;
+    private static final int STACK_DEPTH = 32;
+
+    private final long budgetNanos;
+    private final long windowNanos;
+    private final int capacity;
+    private final GarbageCollectorMXBean[] collectors;
+
+    private final long[] timestamp;
+    private final long[] frameNanos;
+    private final float[] songTime;
+    private final int[] activeNotes;
+    private final int[] inputEvents;
+    private final long[] gcCount;
+    private final long[] gcMillis;
+    private int index;
+    private int count;
+    private long lastFrameStart;
+
+    // Copia de la ventana que lee el hilo escritor mientras dumpPending sea verdadero
+    private final long[] dumpTimestamp;
+    private final long[] dumpFrameNanos;
+    private final float[] dumpSongTime;
+    private final int[] dumpActiveNotes;
+    private final int[] dumpInputEvents;
+    private final long[] dumpGcCount;
+    private final long[] dumpGcMillis;
+    private int dumpCount;
+    private volatile boolean dumpPending;
+    private long lastDumpNanos;
+    private int hitchCount;
+
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public HitchDetector(float defaultBudgetSeconds, float windowSeconds) {
+        this.budgetNanos = Long.getLong(BUDGET_PROPERTY, Math.round(defaultBudgetSeconds * 1000f)) * 1_000_000L;
+        this.windowNanos = (long) (windowSeconds * 1e9);
+        this.capacity = Math.max(64, (int) Math.ceil(windowSeconds * MAX_FRAME_RATE));
+
+        List<GarbageCollectorMXBean> beans = ManagementFactory.getGarbageCollectorMXBeans();
+        this.collectors = beans.toArray(new GarbageCollectorMXBean[0]);
+
+        this.timestamp = new long[capacity];
+        this.frameNanos = new long[capacity];
+        this.songTime = new float[capacity];
+        this.activeNotes = new int[capacity];
+        this.inputEvents = new int[capacity];
+        this.gcCount = new long[capacity];
+        this.gcMillis = new long[capacity];
+        this.dumpTimestamp = new long[capacity];
+        this.dumpFrameNanos = new long[capacity];
+        this.dumpSongTime = new float[capacity];
+        this.dumpActiveNotes = new int[capacity];
+        this.dumpInputEvents = new int[capacity];
+        this.dumpGcCount = new long[capacity];
+        this.dumpGcMillis = new long[capacity];
+        this.lastDumpNanos = System.nanoTime() - DUMP_COOLDOWN_NANOS;
+
+        writer = new Thread(this::writeLoop, "hitch-writer");
+        writer.setDaemon(true);
+        writer.setPriority(Thread.MIN_PRIORITY);
+        writer.start();
+    }
+
+    // Olvida el frame anterior (después de cargar una pantalla o reiniciar la partida),
+    // así el tiempo de carga no cuenta como tirón
+    public void reset() {
+        lastFrameStart = 0L;
+    }
+
+    // Registra el frame actual; la duración es el tiempo desde el registro anterior, así
+    // incluye también lo que pasa fuera de render (swap de buffers, vsync, eventos)
+    public void record(float currentSongTime, int currentActiveNotes, int currentInputEvents) {
+        long now = System.nanoTime();
+        long previous = lastFrameStart;
+        lastFrameStart = now;
+        if (previous == 0L) return;
+
+        long collections = 0L;
+        long collectionMillis = 0L;
+        for (GarbageCollectorMXBean collector : collectors) {
+            collections += Math.max(0L, collector.getCollectionCount());
+            collectionMillis += Math.max(0L, collector.getCollectionTime());
+        }
+
+        timestamp[index] = now;
+        frameNanos[index] = now - previous;
+        songTime[index] = currentSongTime;
+        activeNotes[index] = currentActiveNotes;
+        inputEvents[index] = currentInputEvents;
+        gcCount[index] = collections;
+        gcMillis[index] = collectionMillis;
+        index = (index + 1) % capacity;
+        if (count < capacity) count++;
+
+        if (now - previous > budgetNanos) {
+            hitchCount++;
+            if (!dumpPending && now - lastDumpNanos >= DUMP_COOLDOWN_NANOS) {
+                lastDumpNanos = now;
+                snapshot(now);
+                dumpPending = true;
+                LockSupport.unpark(writer);
+            }
+        }
+    }
+
+    // Copia los frames dentro de la ventana, del más antiguo al más reciente
+    private void snapshot(long now) {
+        int first = count;
+        for (int i = 1; i <= count; i++) {
+            int slot = (index - i + capacity) % capacity;
+            if (now - timestamp[slot] > windowNanos) break;
+            first = i;
+        }
+        dumpCount = 0;
+        for (int i = first; i >= 1; i--) {
+            int slot = (index - i + capacity) % capacity;
+            dumpTimestamp[dumpCount] = timestamp[slot];
+            dumpFrameNanos[dumpCount] = frameNanos[slot];
+            dumpSongTime[dumpCount] = songTime[slot];
+            dumpActiveNotes[dumpCount] = activeNotes[slot];
+            dumpInputEvents[dumpCount] = inputEvents[slot];
+            dumpGcCount[dumpCount] = gcCount[slot];
+            dumpGcMillis[dumpCount] = gcMillis[slot];
+            dumpCount++;
+        }
+    }
+
+    private void writeLoop() {
+        while (running) {
+            if (!dumpPending) {
+                LockSupport.park(this);
+                continue;
+            }
+            try {
+                writeDump();
+            } catch (Exception e) {
+                System.err.println("Error writing hitch dump: " + e.getMessage());
+            } finally {
+                dumpPending = false;
+            }
+        }
+    }
+
+    private void writeDump() {
+        int frames = dumpCount;
+        long hitchTimestamp = dumpTimestamp[frames - 1];
+        StringBuilder out = new StringBuilder(frames * 64 + 8192);
+        out.append("# hitch ").append(dumpFrameNanos[frames - 1] / 1e6).append(" ms")
+            .append(" (budget ").append(budgetNanos / 1e6).append(" ms, ")
+            .append(hitchCount).append(" hitches so far)\n");
+        out.append("# gc:");
+        for (GarbageCollectorMXBean collector : collectors) {
+            out.append(' ').append(collector.getName());
+        }
+        out.append('\n');
+        out.append("ms_before_hitch,frame_ms,song_time,active_notes,input_events,gc_count,gc_ms\n");
+        long baseCount = dumpGcCount[0];
+        long baseMillis = dumpGcMillis[0];
+        for (int i = 0; i < frames; i++) {
+            out.append((dumpTimestamp[i] - hitchTimestamp) / 1e6)
+                .append(',').append(dumpFrameNanos[i] / 1e6)
+                .append(',').append(dumpSongTime[i])
+                .append(',').append(dumpActiveNotes[i])
+                .append(',').append(dumpInputEvents[i])
+                .append(',').append(dumpGcCount[i] - baseCount)
+                .append(',').append(dumpGcMillis[i] - baseMillis).append('\n');
+        }
+
+        out.append("\n# threads\n");
+        for (ThreadInfo thread : ManagementFactory.getThreadMXBean().dumpAllThreads(false, false)) {
+            out.append('"').append(thread.getThreadName()).append("\" ")
+                .append(thread.getThreadState());
+            if (thread.getLockName() != null) {
+                out.append(" on ").append(thread.getLockName());
+            }
+            out.append('\n');
+            StackTraceElement[] stack = thread.getStackTrace();
+            for (int i = 0; i < stack.length && i < STACK_DEPTH; i++) {
+                out.append("    at ").append(stack[i]).append('\n');
+            }
+            if (stack.length > STACK_DEPTH) {
+                out.append("    ...\n");
+            }
+            out.append('\n');
+        }
+
+        FileHandle file = Gdx.files.local("hitches/hitch-" + System.currentTimeMillis() + ".txt");
+        file.writeString(out.toString(), false);
+        System.out.println("Hitch of " + dumpFrameNanos[frames - 1] / 1_000_000L + " ms written to " + file.path());
+    }
+
+    public int getHitchCount() {
+        return hitchCount;
+    }
+
+    @Override
+    public void dispose() {
+        running = false;
+        LockSupport.unpark(writer);
+    }
+}
@@ -0,0 +1,203 @@
+package com.game.taptap.debug;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// Definiciones de eventos JFR del juego. Solo FlightEvents usa esta clase, y solo
+// después de comprobar que la JVM trae jdk.jfr (JDK 11+ o 8u262+).
+// Registrar los tipos de evento inicializa JFR (genera bytecode, varios MB de basura),
+// así que Types se carga recién cuando hay una grabación en marcha. Después, cada emisor
+// consulta si su tipo está habilitado antes de crear el evento.
+final class JfrEvents {
+    private static final class Types {
+        static final EventType FRAME = EventType.getEventType(FrameEvent.class);
+        static final EventType JUDGEMENT = EventType.getEventType(JudgementEvent.class);
+        static final EventType ASSET_LOAD = EventType.getEventType(AssetLoadEvent.class);
+        static final EventType BEATMAP_PARSE = EventType.getEventType(BeatmapParseEvent.class);
+        static final EventType SCREEN_TRANSITION = EventType.getEventType(ScreenTransitionEvent.class);
+    }
+
+    // Frame en curso (solo el hilo de render abre y cierra frames)
+    private static FrameEvent frame;
+
+    private JfrEvents() {}
+
+    static boolean isAvailable() {
+        return FlightRecorder.isAvailable();
+    }
+
+    // Verdadero desde que se inició la primera grabación (por línea de comandos o jcmd)
+    static boolean isRecorderInitialized() {
+        return FlightRecorder.isInitialized();
+    }
+
+    static void frameBegin() {
+        if (!Types.FRAME.isEnabled()) {
+            frame = null;
+            return;
+        }
+        frame = new FrameEvent();
+        frame.begin();
+    }
+
+    static void frameEnd(long frameNumber, long allocatedBytes) {
+        FrameEvent event = frame;
+        if (event == null) return;
+        frame = null;
+        event.end();
+        if (event.shouldCommit()) {
+            event.frame = frameNumber;
+            event.allocated = allocatedBytes;
+            event.commit();
+        }
+    }
+
+    static void judgement(int lane, int note, String result, float offsetSeconds, float songTime) {
+        if (!Types.JUDGEMENT.isEnabled()) return;
+        JudgementEvent event = new JudgementEvent();
+        event.lane = lane;
+        event.note = note;
+        event.result = result;
+        event.offset = Math.round(offsetSeconds * 1_000_000.0);
+        event.songTime = songTime;
+        event.commit();
+    }
+
+    static Object beginAssetLoad() {
+        if (!Types.ASSET_LOAD.isEnabled()) return null;
+        AssetLoadEvent event = new AssetLoadEvent();
+        event.begin();
+        return event;
+    }
+
+    static void endAssetLoad(Object handle, String path, String type, long bytes) {
+        AssetLoadEvent event = (AssetLoadEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = path;
+            event.assetType = type;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    static Object beginBeatmapParse() {
+        if (!Types.BEATMAP_PARSE.isEnabled()) return null;
+        BeatmapParseEvent event = new BeatmapParseEvent();
+        event.begin();
+        return event;
+    }
+
+    static void endBeatmapParse(Object handle, String path, int notes, boolean success) {
+        BeatmapParseEvent event = (BeatmapParseEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = path;
+            event.notes = notes;
+            event.success = success;
+            event.commit();
+        }
+    }
+
+    static Object beginScreenTransition(String from, String to) {
+        if (!Types.SCREEN_TRANSITION.isEnabled()) return null;
+        ScreenTransitionEvent event = new ScreenTransitionEvent();
+        event.from = from;
+        event.to = to;
+        event.begin();
+        return event;
+    }
+
+    static void endScreenTransition(Object handle) {
+        ScreenTransitionEvent event = (ScreenTransitionEvent) handle;
+        event.commit();
+    }
+
+    @Name("taptap.Frame")
+    @Label("Frame")
+    @Category({"TapTap", "Render"})
+    @Description("Un frame completo de TapTapGame.render")
+    @StackTrace(false)
+    static final class FrameEvent extends Event {
+        @Label("Frame")
+        long frame;
+
+        @Label("Allocated")
+        @DataAmount
+        long allocated;
+    }
+
+    @Name("taptap.Judgement")
+    @Label("Judgement")
+    @Category({"TapTap", "Gameplay"})
+    @Description("Juicio de una nota: golpe con su desfase o fallo por ventana")
+    @StackTrace(false)
+    static final class JudgementEvent extends Event {
+        @Label("Lane")
+        int lane;
+
+        @Label("Note")
+        int note;
+
+        @Label("Result")
+        String result;
+
+        @Label("Offset")
+        @Timespan(Timespan.MICROSECONDS)
+        long offset;
+
+        @Label("Song Time")
+        float songTime;
+    }
+
+    @Name("taptap.AssetLoad")
+    @Label("Asset Load")
+    @Category({"TapTap", "Assets"})
+    @Description("Carga síncrona de un asset de ritmo")
+    static final class AssetLoadEvent extends Event {
+        @Label("Path")
+        String path;
+
+        @Label("Type")
+        String assetType;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("taptap.BeatmapParse")
+    @Label("Beatmap Parse")
+    @Category({"TapTap", "Assets"})
+    @Description("Lectura y compilación de un beatmap")
+    static final class BeatmapParseEvent extends Event {
+        @Label("Path")
+        String path;
+
+        @Label("Notes")
+        int notes;
+
+        @Label("Success")
+        boolean success;
+    }
+
+    @Name("taptap.ScreenTransition")
+    @Label("Screen Transition")
+    @Category({"TapTap", "Screens"})
+    @Description("Cambio de pantalla, incluyendo hide() de la anterior y show() de la nueva")
+    static final class ScreenTransitionEvent extends Event {
+        @Label("From")
+        String from;
+
+        @Label("To")
+        String to;
+    }
+}
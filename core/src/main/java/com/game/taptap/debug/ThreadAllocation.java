@@ -0,0 +1,64 @@
+package com.game.taptap.debug;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+// Bytes reservados por el hilo actual según la JVM (HotSpot). En Java 8 la propia consulta
+// reserva un par de arreglos pequeños, así que se mide ese costo una vez y se descuenta.
+public final class ThreadAllocation {
+    private static final com.sun.management.ThreadMXBean THREADS = lookup();
+    private static final long QUERY_OVERHEAD = measureOverhead();
+
+    private ThreadAllocation() {}
+
+    private static com.sun.management.ThreadMXBean lookup() {
+        try {
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            if (threads instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+                if (hotspot.isThreadAllocatedMemorySupported()) {
+                    if (!hotspot.isThreadAllocatedMemoryEnabled()) {
+                        hotspot.setThreadAllocatedMemoryEnabled(true);
+                    }
+                    return hotspot;
+                }
+            }
+        } catch (Throwable t) {
+            // JVM sin soporte (Android, otras implementaciones)
+        }
+        return null;
+    }
+
+    private static long measureOverhead() {
+        if (THREADS == null) return 0L;
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 16; i++) {
+            long first = currentThreadBytes();
+            long second = currentThreadBytes();
+            overhead = Math.min(overhead, second - first);
+        }
+        return Math.max(0L, overhead);
+    }
+
+    public static boolean isSupported() {
+        return THREADS != null;
+    }
+
+    // Total acumulado del hilo actual, o -1 si no está soportado
+    public static long currentThreadBytes() {
+        if (THREADS == null) return -1L;
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    // Total acumulado de otro hilo (por ejemplo el de juicio), o -1 si no está soportado
+    public static long threadBytes(long threadId) {
+        if (THREADS == null) return -1L;
+        return THREADS.getThreadAllocatedBytes(threadId);
+    }
+
+    // Bytes reservados entre dos lecturas de currentThreadBytes, sin el costo de la consulta
+    public static long between(long startBytes, long endBytes) {
+        if (startBytes < 0 || endBytes < 0) return -1L;
+        return Math.max(0L, endBytes - startBytes - QUERY_OVERHEAD);
+    }
+}
@@ -0,0 +1,88 @@
+package com.game.taptap.gameplay;
+
+// Bot de autoplay: presiona cada nota en su tiempo más un desvío aleatorio uniforme en
+// [-jitter, +jitter] y la suelta al final del HOLD (o poco después en un TAP).
+// El desvío sale de un xorshift con semilla, así que dos corridas con la misma semilla
+// generan exactamente las mismas entradas. No crea objetos al generar eventos.
+public class AutoplayInput implements LaneInputSource {
+    private static final long TAP_RELEASE_TICKS = GameplaySimulation.toTick(0.04);
+    private static final long NONE = Long.MAX_VALUE;
+
+    private final CompiledChart chart;
+    private final long jitterTicks;
+    private final long seed;
+    private final int[] cursor;
+    private final long[] pressTick;
+    private final long[] releaseTick;
+    private long random;
+
+    public AutoplayInput(CompiledChart chart, float jitterSeconds, long seed) {
+        this.chart = chart;
+        this.jitterTicks = Math.max(0L, GameplaySimulation.toTick(jitterSeconds));
+        this.seed = seed;
+        this.cursor = new int[chart.getLaneCount()];
+        this.pressTick = new long[chart.getLaneCount()];
+        this.releaseTick = new long[chart.getLaneCount()];
+        reset();
+    }
+
+    // Vuelve al inicio del mapa con la misma semilla
+    public void reset() {
+        random = seed != 0L ? seed : 0x9E3779B97F4A7C15L;
+        for (int lane = 0; lane < cursor.length; lane++) {
+            cursor[lane] = chart.laneStart(lane);
+            releaseTick[lane] = NONE;
+            pressTick[lane] = nextPressTick(lane, 1L);
+        }
+    }
+
+    // Encola en orden de tick todos los eventos de todos los carriles hasta targetTick
+    @Override
+    public void pump(GameplaySimulation simulation, long targetTick) {
+        while (true) {
+            int nextLane = -1;
+            long nextTick = NONE;
+            for (int lane = 0; lane < cursor.length; lane++) {
+                long tick = releaseTick[lane] != NONE ? releaseTick[lane] : pressTick[lane];
+                if (tick < nextTick) {
+                    nextTick = tick;
+                    nextLane = lane;
+                }
+            }
+            if (nextLane < 0 || nextTick > targetTick) return;
+
+            if (releaseTick[nextLane] != NONE) {
+                simulation.queueInput(nextLane, false, nextTick);
+                releaseTick[nextLane] = NONE;
+            } else {
+                press(simulation, nextLane, nextTick);
+            }
+        }
+    }
+
+    private void press(GameplaySimulation simulation, int lane, long tick) {
+        simulation.queueInput(lane, true, tick);
+        int note = cursor[lane]++;
+        long release = chart.isHold(note)
+            ? GameplaySimulation.toTick(chart.endTime(note))
+            : tick + TAP_RELEASE_TICKS;
+        // La siguiente pulsación deja al menos un tick para soltar la anterior
+        long nextPress = nextPressTick(lane, tick + 2);
+        pressTick[lane] = nextPress;
+        releaseTick[lane] = Math.max(tick + 1, Math.min(release, nextPress - 1));
+    }
+
+    private long nextPressTick(int lane, long minTick) {
+        int note = cursor[lane];
+        if (note >= chart.laneEnd(lane)) return NONE;
+        return Math.max(minTick, GameplaySimulation.toTick(chart.time(note)) + nextJitter());
+    }
+
+    private long nextJitter() {
+        if (jitterTicks == 0L) return 0L;
+        random ^= random << 13;
+        random ^= random >>> 7;
+        random ^= random << 17;
+        return Math.floorMod(random, jitterTicks * 2 + 1) - jitterTicks;
+    }
+}
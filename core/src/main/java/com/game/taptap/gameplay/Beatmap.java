@@ -1,24 +1,32 @@
 package com.game.taptap.gameplay;
 
 import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.Json;
 import com.badlogic.gdx.Gdx;
-import java.util.List;
-import java.util.ArrayList;
+
+import java.io.IOException;
+import java.util.Comparator;
 
 // Clase principal muestra un beatmap
 public class Beatmap {
     public static class TimingPoint {
         public float time;
         public float bpm;
+        // Multiplicador de velocidad de scroll desde este punto (1 = normal)
+        public float scrollSpeed = 1f;
         
         public TimingPoint() {}
         public TimingPoint(float time, float bpm) {
             this.time = time;
             this.bpm = bpm;
         }
+        public TimingPoint(float time, float bpm, float scrollSpeed) {
+            this.time = time;
+            this.bpm = bpm;
+            this.scrollSpeed = scrollSpeed;
+        }
         public float getTime() { return time; }
         public float getBpm() { return bpm; }
+        public float getScrollSpeed() { return scrollSpeed; }
     }
     
     // Lista de todas las notas o beats del mapa (Beatmap.json)
@@ -31,6 +39,10 @@ public class Beatmap {
     private String difficulty;
     private float audioLeadIn;
     private float previewTime;
+    // Intervalo de los ticks de puntuación de las notas HOLD en segundos (0 = sin ticks)
+    private float holdTickInterval;
+    // Dificultad de juicio de 0 a 10 (5 = ventanas base); ver JudgementWindows
+    private float judgeDifficulty;
 
     // Constructor (inicializa listas y valores por defecto)
     public Beatmap() {
@@ -41,6 +53,8 @@ public class Beatmap {
         this.difficulty = "Normal";
         this.audioLeadIn = 0f;
         this.previewTime = 0f;
+        this.holdTickInterval = 0f;
+        this.judgeDifficulty = JudgementWindows.DEFAULT_DIFFICULTY;
     }
     
     // Devuelve la lista de notas
@@ -55,47 +69,132 @@ public class Beatmap {
     public String getDifficulty() { return difficulty; }
     public float getAudioLeadIn() { return audioLeadIn; }
     public float getPreviewTime() { return previewTime; }
+    public float getHoldTickInterval() { return holdTickInterval; }
+    public float getJudgeDifficulty() { return judgeDifficulty; }
     public void setTitle(String title) { this.title = title; }
     public void setArtist(String artist) { this.artist = artist; }
     public void setDifficulty(String difficulty) { this.difficulty = difficulty; }
     public void setAudioLeadIn(float audioLeadIn) { this.audioLeadIn = audioLeadIn; }
     public void setPreviewTime(float previewTime) { this.previewTime = previewTime; }
+    public void setHoldTickInterval(float holdTickInterval) { this.holdTickInterval = holdTickInterval; }
+    public void setJudgeDifficulty(float judgeDifficulty) { this.judgeDifficulty = judgeDifficulty; }
     
-    // Métodos para manipular notas
+    // Copia los metadatos y los puntos de timing (objetos nuevos) de otro mapa; las notas no
+    void copyMetadataFrom(Beatmap from) {
+        title = from.title;
+        artist = from.artist;
+        difficulty = from.difficulty;
+        audioLeadIn = from.audioLeadIn;
+        previewTime = from.previewTime;
+        holdTickInterval = from.holdTickInterval;
+        judgeDifficulty = from.judgeDifficulty;
+        timingPoints.clear();
+        for (TimingPoint timingPoint : from.timingPoints) {
+            timingPoints.add(new TimingPoint(timingPoint.time, timingPoint.bpm, timingPoint.scrollSpeed));
+        }
+    }
+    
+    // Métodos para manipular notas. addNote inserta en su lugar con búsqueda binaria (las
+    // notas siempre quedan ordenadas por tiempo); para muchas notas usar addNotes o Builder.
     public void addNote(Note note) {
-        notes.add(note);
-        sortNotesByTime();
+        notes.insert(upperBound(note.getTime()), note);
+    }
+    // Agrega un lote de notas: se ordena una copia del lote (el del llamador no cambia) y se
+    // mezcla una vez con las existentes
+    public void addNotes(Array<Note> notesToAdd) {
+        if (notesToAdd.size == 0) return;
+        Array<Note> batch = new Array<>(notesToAdd);
+        batch.sort(NOTE_ORDER);
+        int existing = notes.size;
+        if (existing == 0 || notes.get(existing - 1).getTime() <= batch.first().getTime()) {
+            notes.addAll(batch);
+            return;
+        }
+        Note[] merged = new Note[existing + batch.size];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < existing && j < batch.size) {
+            // Con tiempos iguales primero las existentes (mismo orden que addNote)
+            merged[k++] = batch.get(j).getTime() < notes.get(i).getTime() ? batch.get(j++) : notes.get(i++);
+        }
+        while (i < existing) merged[k++] = notes.get(i++);
+        while (j < batch.size) merged[k++] = batch.get(j++);
+        notes.clear();
+        notes.ensureCapacity(merged.length);
+        for (Note note : merged) {
+            notes.add(note);
+        }
     }
     public void removeNote(Note note) { notes.removeValue(note, true); }
     public void clearNotes() { notes.clear(); }
     
     // Métodos para manipular puntos de timing
     public void addTimingPoint(TimingPoint timingPoint) {
-        timingPoints.add(timingPoint);
-        sortTimingPointsByTime();
+        int index = timingPoints.size;
+        while (index > 0 && timingPoints.get(index - 1).getTime() > timingPoint.getTime()) {
+            index--;
+        }
+        timingPoints.insert(index, timingPoint);
     }
     public void removeTimingPoint(TimingPoint timingPoint) { timingPoints.removeValue(timingPoint, true); }
     public void clearTimingPoints() { timingPoints.clear(); }
     
-    // Ordena las notas por tiempo ascendente
-    private void sortNotesByTime() {
-        notes.sort((note1, note2) -> Float.compare(note1.getTime(), note2.getTime()));
-    }
-    // Ordena los puntos de timing por tiempo ascendente
-    private void sortTimingPointsByTime() {
-        timingPoints.sort((tp1, tp2) -> Float.compare(tp1.getTime(), tp2.getTime()));
+    // Primer índice cuya nota empieza después de time (las de igual tiempo quedan antes)
+    private int upperBound(float time) {
+        int low = 0;
+        int high = notes.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (notes.get(mid).getTime() <= time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
     }
     
-    // Devuelve las notas activas en la ventana de tiempo actual (para render y lógica)
-    public List<Note> getActiveNotes(float currentTime, float lookAheadTime) {
-        List<Note> activeNotes = new ArrayList<>();
-        for (Note note : notes) {
-            // Solo incluye notas que están cerca del tiempo actual
-            if (note.getTime() >= currentTime - 0.5f && note.getTime() <= currentTime + lookAheadTime) {
-                activeNotes.add(note);
-            }
+    // Orden por tiempo ascendente (el sort de Array es estable)
+    private static final Comparator<Note> NOTE_ORDER = (note1, note2) -> Float.compare(note1.getTime(), note2.getTime());
+    private static final Comparator<TimingPoint> TIMING_ORDER = (tp1, tp2) -> Float.compare(tp1.getTime(), tp2.getTime());
+    
+    // Construye un beatmap agregando notas y puntos de timing sin ordenar; se ordenan una
+    // sola vez en build(). Es la forma de cargar mapas grandes (O(n log n) en total).
+    public static class Builder {
+        private final Beatmap beatmap = new Beatmap();
+        
+        public Builder() {}
+        public Builder(int expectedNotes) {
+            beatmap.notes.ensureCapacity(expectedNotes);
+        }
+        
+        public Builder title(String title) { beatmap.setTitle(title); return this; }
+        public Builder artist(String artist) { beatmap.setArtist(artist); return this; }
+        public Builder difficulty(String difficulty) { beatmap.setDifficulty(difficulty); return this; }
+        public Builder audioLeadIn(float audioLeadIn) { beatmap.setAudioLeadIn(audioLeadIn); return this; }
+        public Builder previewTime(float previewTime) { beatmap.setPreviewTime(previewTime); return this; }
+        public Builder holdTickInterval(float interval) { beatmap.setHoldTickInterval(interval); return this; }
+        public Builder judgeDifficulty(float judgeDifficulty) { beatmap.setJudgeDifficulty(judgeDifficulty); return this; }
+        
+        public Builder addNote(Note note) {
+            beatmap.notes.add(note);
+            return this;
+        }
+        
+        public Builder addTimingPoint(TimingPoint timingPoint) {
+            beatmap.timingPoints.add(timingPoint);
+            return this;
+        }
+        
+        public int getNoteCount() { return beatmap.notes.size; }
+        
+        // Ordena una sola vez y entrega el beatmap (el builder no se debe usar después)
+        public Beatmap build() {
+            beatmap.notes.sort(NOTE_ORDER);
+            beatmap.timingPoints.sort(TIMING_ORDER);
+            return beatmap;
         }
-        return activeNotes;
     }
     
     // Devuelve la nota que puede ser golpeada en este instante y carril (Osea la linea)
@@ -108,64 +207,25 @@ public class Beatmap {
         return null;
     }
     
-    // Carga un beatmap desde un archivo JSON
+    // Carga un beatmap desde un archivo JSON (el mismo cargador que usa el gameplay, con
+    // caché). Si no se puede leer devuelve un beatmap vacío.
     public static Beatmap loadFromFile(String filePath) {
         try {
-            Json json = new Json();
-            String jsonString = Gdx.files.internal(filePath).readString();
-            Beatmap beatmap = new Beatmap();
-            return beatmap;
+            return BeatmapCache.loadBeatmap(Gdx.files.internal(filePath), BeatmapCache.LANES);
         } catch (Exception e) {
+            System.err.println("Error loading beatmap " + filePath + ": " + e.getMessage());
             return new Beatmap();
         }
     }
     
-    // Guarda el beatmap a un archivo JSON (estructura básica)
-    public void saveToFile(String filePath) {
-        try {
-            Json json = new Json();
-            json.setOutputType(com.badlogic.gdx.utils.JsonWriter.OutputType.json);
-            StringBuilder jsonBuilder = new StringBuilder();
-            jsonBuilder.append("{\n");
-            jsonBuilder.append("  \"title\": \"").append(title).append("\",\n");
-            jsonBuilder.append("  \"artist\": \"").append(artist).append("\",\n");
-            jsonBuilder.append("  \"difficulty\": \"").append(difficulty).append("\",\n");
-            jsonBuilder.append("  \"audioLeadIn\": ").append(audioLeadIn).append(",\n");
-            jsonBuilder.append("  \"previewTime\": ").append(previewTime).append(",\n");
-            jsonBuilder.append("  \"notes\": [\n");
-            for (int i = 0; i < notes.size; i++) {
-                Note note = notes.get(i);
-                jsonBuilder.append("    {\n");
-                jsonBuilder.append("      \"time\": ").append(note.getTime()).append(",\n");
-                jsonBuilder.append("      \"lane\": ").append(note.getLane()).append(",\n");
-                jsonBuilder.append("      \"type\": \"").append(note.getType()).append("\"");
-                if (note.getType() == Note.NoteType.HOLD) {
-                    jsonBuilder.append(",\n      \"endTime\": ").append(note.getEndTime());
-                }
-                jsonBuilder.append("\n    }");
-                if (i < notes.size - 1) {
-                    jsonBuilder.append(",");
-                }
-                jsonBuilder.append("\n");
-            }
-            jsonBuilder.append("  ],\n");
-            jsonBuilder.append("  \"timingPoints\": [\n");
-            for (int i = 0; i < timingPoints.size; i++) {
-                TimingPoint tp = timingPoints.get(i);
-                jsonBuilder.append("    {\n");
-                jsonBuilder.append("      \"time\": ").append(tp.getTime()).append(",\n");
-                jsonBuilder.append("      \"bpm\": ").append(tp.getBpm()).append("\n");
-                jsonBuilder.append("    }");
-                if (i < timingPoints.size - 1) {
-                    jsonBuilder.append(",");
-                }
-                jsonBuilder.append("\n");
-            }
-            jsonBuilder.append("  ]\n");
-            jsonBuilder.append("}");
-            Gdx.files.local(filePath).writeString(jsonBuilder.toString(), false);
-        } catch (Exception e) {
-        }
+    // Guarda el beatmap a un archivo JSON de forma atómica (ver BeatmapWriter)
+    public void saveToFile(String filePath) throws IOException {
+        BeatmapWriter.write(new BeatmapWriter.Snapshot(this), Gdx.files.local(filePath).file());
+    }
+    
+    // Guarda en segundo plano; el listener recibe el resultado en el hilo de render
+    public void saveToFileAsync(String filePath, BeatmapWriter.Listener listener) {
+        BeatmapWriter.saveAsync(this, Gdx.files.local(filePath).file(), listener);
     }
     
     // Devuelve el número total de notas
@@ -0,0 +1,95 @@
+package com.game.taptap.gameplay;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.io.File;
+import java.io.IOException;
+
+// Único cargador de beatmaps del juego (gameplay y editor). Guarda en memoria el mapa
+// compilado y los metadatos de cada archivo, con la ruta como clave y validados por la
+// fecha de modificación y un hash del contenido del archivo: si la fecha cambió pero el
+// contenido es el mismo (por ejemplo al guardar sin cambios) no se vuelve a leer. El hash
+// viene del .ttc; el JSON solo se lee para hashearlo cuando cambió su fecha.
+// Moverse entre selección, editor y gameplay no vuelve a interpretar un mapa sin cambios.
+// Solo se usa desde el hilo de render.
+public final class BeatmapCache {
+    // Carriles del juego (gameplay y editor)
+    public static final int LANES = 4;
+
+    private static final class Entry {
+        int laneCount;
+        final ChartFile.Source source = new ChartFile.Source();
+        Beatmap metadata;
+        CompiledChart chart;
+    }
+
+    private static final ObjectMap<String, Entry> entries = new ObjectMap<>();
+
+    private BeatmapCache() {
+    }
+
+    // Mapa compilado del archivo (del caché, del .ttc o del JSON); los metadatos y puntos de
+    // timing se copian a metadataOut
+    public static CompiledChart loadChart(FileHandle json, int laneCount, Beatmap metadataOut) throws IOException {
+        Entry entry = lookup(json, laneCount);
+        if (entry == null) {
+            entry = new Entry();
+            entry.laneCount = laneCount;
+            entry.metadata = new Beatmap();
+            entry.chart = ChartFile.loadOrCompile(json, laneCount, entry.metadata, entry.source);
+            entries.put(json.path(), entry);
+        }
+        metadataOut.copyMetadataFrom(entry.metadata);
+        return entry.chart;
+    }
+
+    // Beatmap editable con sus notas (objetos nuevos en cada llamada: el editor los modifica)
+    public static Beatmap loadBeatmap(FileHandle json, int laneCount) throws IOException {
+        Beatmap metadata = new Beatmap();
+        CompiledChart chart = loadChart(json, laneCount, metadata);
+        // El mapa compilado agrupa las notas por carril; el Builder las ordena por tiempo
+        Beatmap.Builder builder = new Beatmap.Builder(chart.getNoteCount());
+        for (int i = 0; i < chart.getNoteCount(); i++) {
+            Note.NoteType type = chart.isHold(i) ? Note.NoteType.HOLD : Note.NoteType.TAP;
+            builder.addNote(new Note(chart.time(i), chart.lane(i), type, chart.endTime(i)));
+        }
+        Beatmap beatmap = builder.build();
+        beatmap.copyMetadataFrom(metadata);
+        return beatmap;
+    }
+
+    // Olvida un archivo y borra su .ttc (después de guardarlo desde el editor): con fechas de
+    // resolución de un segundo, un guardado justo después de cargar no cambiaría la fecha
+    public static void invalidate(FileHandle json) {
+        entries.remove(json.path());
+        File compiled = ChartFile.compiledFileFor(json).file();
+        if (compiled.isFile() && !compiled.delete()) {
+            System.err.println("Could not delete compiled chart: " + compiled.getPath());
+        }
+    }
+
+    public static void clear() {
+        entries.clear();
+    }
+
+    // Entrada vigente del archivo o null si hay que volver a leerlo
+    private static Entry lookup(FileHandle json, int laneCount) {
+        Entry entry = entries.get(json.path());
+        if (entry == null || entry.laneCount != laneCount) return null;
+        long modified = lastModified(json);
+        if (modified == entry.source.lastModified) return entry;
+        if (ChartFile.sourceHash(json) == entry.source.hash) {
+            entry.source.lastModified = modified;
+            return entry;
+        }
+        entries.remove(json.path());
+        return null;
+    }
+
+    // Fecha del archivo en disco (0 si está empaquetado, como en un jar: no cambia)
+    private static long lastModified(FileHandle json) {
+        File file = json.file();
+        return file.isFile() ? file.lastModified() : 0L;
+    }
+}
@@ -0,0 +1,136 @@
+package com.game.taptap.gameplay;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import java.io.IOException;
+import java.io.Reader;
+
+// Lector en streaming de beatmap.json: recorre el documento con JsonPullParser y deja los
+// metadatos y los puntos de timing en un Beatmap y las notas directo en un NoteBuffer, sin
+// árbol JsonValue ni un objeto Note por entrada. Los campos desconocidos se saltan.
+// Acepta también el formato de los mapas incluidos: metadatos dentro de "metadata",
+// tipos en minúsculas y el carril 0 omitido (el Json de libGDX no escribe valores por defecto).
+public final class BeatmapJsonReader {
+    private static final float NO_TIME = Float.NaN;
+
+    private BeatmapJsonReader() {
+    }
+
+    // Lee el archivo; las notas del Beatmap no se tocan (van al NoteBuffer)
+    public static void read(FileHandle file, Beatmap beatmap, NoteBuffer notes) throws IOException {
+        Reader reader = file.reader("UTF-8");
+        try {
+            read(reader, beatmap, notes);
+        } finally {
+            reader.close();
+        }
+    }
+
+    public static void read(Reader reader, Beatmap beatmap, NoteBuffer notes) throws IOException {
+        JsonPullParser parser = new JsonPullParser(reader);
+        parser.beginObject();
+        while (parser.nextField()) {
+            if (parser.textEquals("notes")) {
+                readNotes(parser, notes);
+            } else if (parser.textEquals("timingPoints")) {
+                readTimingPoints(parser, beatmap);
+            } else if (parser.textEquals("metadata")) {
+                readMetadata(parser, beatmap);
+            } else if (parser.textEquals("title")) {
+                beatmap.setTitle(orDefault(parser.readString(), "Unknown"));
+            } else if (parser.textEquals("artist")) {
+                beatmap.setArtist(orDefault(parser.readString(), "Unknown"));
+            } else if (parser.textEquals("difficulty")) {
+                beatmap.setDifficulty(orDefault(parser.readString(), "Normal"));
+            } else if (parser.textEquals("audioLeadIn")) {
+                beatmap.setAudioLeadIn(parser.readFloat());
+            } else if (parser.textEquals("previewTime")) {
+                beatmap.setPreviewTime(parser.readFloat());
+            } else if (parser.textEquals("holdTickInterval")) {
+                beatmap.setHoldTickInterval(parser.readFloat());
+            } else if (parser.textEquals("judgeDifficulty")) {
+                beatmap.setJudgeDifficulty(parser.readFloat());
+            } else {
+                parser.skipValue();
+            }
+        }
+    }
+
+    private static void readMetadata(JsonPullParser parser, Beatmap beatmap) throws IOException {
+        parser.beginObject();
+        while (parser.nextField()) {
+            if (parser.textEquals("songTitle") || parser.textEquals("title")) {
+                beatmap.setTitle(orDefault(parser.readString(), "Unknown"));
+            } else if (parser.textEquals("artist")) {
+                beatmap.setArtist(orDefault(parser.readString(), "Unknown"));
+            } else {
+                parser.skipValue();
+            }
+        }
+    }
+
+    private static String orDefault(String value, String fallback) {
+        return value != null ? value : fallback;
+    }
+
+    private static void readNotes(JsonPullParser parser, NoteBuffer notes) throws IOException {
+        parser.beginArray();
+        while (parser.nextElement()) {
+            float time = NO_TIME;
+            float endTime = NO_TIME;
+            int lane = 0;
+            byte type = -1;
+
+            parser.beginObject();
+            while (parser.nextField()) {
+                if (parser.textEquals("time")) {
+                    time = parser.readFloat();
+                } else if (parser.textEquals("endTime")) {
+                    endTime = parser.readFloat();
+                } else if (parser.textEquals("lane")) {
+                    lane = parser.readInt();
+                } else if (parser.textEquals("type")) {
+                    parser.readText();
+                    if (parser.textEqualsIgnoreCase("TAP")) {
+                        type = CompiledChart.TYPE_TAP;
+                    } else if (parser.textEqualsIgnoreCase("HOLD")) {
+                        type = CompiledChart.TYPE_HOLD;
+                    } else {
+                        throw parser.error("Unknown note type");
+                    }
+                } else {
+                    parser.skipValue();
+                }
+            }
+
+            if (Float.isNaN(time) || type < 0) {
+                throw parser.error("Note " + notes.size() + " is missing time or type");
+            }
+            // Una nota HOLD sin endTime (o una TAP) termina en su propio tiempo
+            if (type == CompiledChart.TYPE_TAP || Float.isNaN(endTime)) {
+                endTime = time;
+            }
+            notes.add(time, endTime, lane, type);
+        }
+    }
+
+    private static void readTimingPoints(JsonPullParser parser, Beatmap beatmap) throws IOException {
+        parser.beginArray();
+        while (parser.nextElement()) {
+            Beatmap.TimingPoint timingPoint = new Beatmap.TimingPoint();
+            parser.beginObject();
+            while (parser.nextField()) {
+                if (parser.textEquals("time")) {
+                    timingPoint.time = parser.readFloat();
+                } else if (parser.textEquals("bpm")) {
+                    timingPoint.bpm = parser.readFloat();
+                } else if (parser.textEquals("scrollSpeed")) {
+                    timingPoint.scrollSpeed = parser.readFloat();
+                } else {
+                    parser.skipValue();
+                }
+            }
+            beatmap.addTimingPoint(timingPoint);
+        }
+    }
+}
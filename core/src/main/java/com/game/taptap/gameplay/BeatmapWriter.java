@@ -0,0 +1,220 @@
+package com.game.taptap.gameplay;
+
+import com.badlogic.gdx.Gdx;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Escritor de beatmap.json. Copia el mapa a un Snapshot inmutable (en el hilo que guarda,
+// normalmente el de render) y lo serializa en streaming a un temporal junto al destino; después
+// de sincronizarlo con el disco lo renombra de forma atómica sobre el archivo final, así un
+// cierre a mitad del guardado deja el archivo anterior intacto. Con saveAsync la escritura
+// corre en un hilo aparte y el resultado vuelve al hilo de render por el Listener.
+public final class BeatmapWriter {
+    // Resultado de un guardado en segundo plano (se llama en el hilo de render)
+    public interface Listener {
+        void onSaved(File file, int noteCount);
+        void onSaveFailed(File file, IOException error);
+    }
+
+    // Copia de un Beatmap en arreglos primitivos; no cambia aunque el editor siga editando
+    public static final class Snapshot {
+        final String title;
+        final String artist;
+        final String difficulty;
+        final float audioLeadIn;
+        final float previewTime;
+        final float holdTickInterval;
+        final float judgeDifficulty;
+        final float[] noteTimes;
+        final float[] noteEndTimes;
+        final int[] noteLanes;
+        final boolean[] noteHolds;
+        final float[] timingTimes;
+        final float[] timingBpms;
+        final float[] timingScrollSpeeds;
+
+        public Snapshot(Beatmap beatmap) {
+            this.title = beatmap.getTitle();
+            this.artist = beatmap.getArtist();
+            this.difficulty = beatmap.getDifficulty();
+            this.audioLeadIn = beatmap.getAudioLeadIn();
+            this.previewTime = beatmap.getPreviewTime();
+            this.holdTickInterval = beatmap.getHoldTickInterval();
+            this.judgeDifficulty = beatmap.getJudgeDifficulty();
+
+            int notes = beatmap.getNotes().size;
+            this.noteTimes = new float[notes];
+            this.noteEndTimes = new float[notes];
+            this.noteLanes = new int[notes];
+            this.noteHolds = new boolean[notes];
+            for (int i = 0; i < notes; i++) {
+                Note note = beatmap.getNotes().get(i);
+                noteTimes[i] = note.getTime();
+                noteEndTimes[i] = note.getEndTime();
+                noteLanes[i] = note.getLane();
+                noteHolds[i] = note.getType() == Note.NoteType.HOLD;
+            }
+
+            int timingPoints = beatmap.getTimingPoints().size;
+            this.timingTimes = new float[timingPoints];
+            this.timingBpms = new float[timingPoints];
+            this.timingScrollSpeeds = new float[timingPoints];
+            for (int i = 0; i < timingPoints; i++) {
+                Beatmap.TimingPoint timingPoint = beatmap.getTimingPoints().get(i);
+                timingTimes[i] = timingPoint.getTime();
+                timingBpms[i] = timingPoint.getBpm();
+                timingScrollSpeeds[i] = timingPoint.getScrollSpeed();
+            }
+        }
+
+        public int getNoteCount() { return noteTimes.length; }
+    }
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private BeatmapWriter() {
+    }
+
+    // Guarda en un hilo aparte; el listener recibe el resultado en el hilo de render
+    public static void saveAsync(Beatmap beatmap, File file, Listener listener) {
+        Snapshot snapshot = new Snapshot(beatmap);
+        Thread saver = new Thread(() -> {
+            IOException failure = null;
+            try {
+                write(snapshot, file);
+            } catch (IOException e) {
+                failure = e;
+            } catch (RuntimeException e) {
+                failure = new IOException(e.toString(), e);
+            }
+            IOException error = failure;
+            Gdx.app.postRunnable(() -> {
+                if (error == null) {
+                    listener.onSaved(file, snapshot.getNoteCount());
+                } else {
+                    listener.onSaveFailed(file, error);
+                }
+            });
+        }, "beatmap-save");
+        saver.setDaemon(true);
+        saver.start();
+    }
+
+    // Escribe el snapshot: temporal, fsync y renombrado atómico sobre el destino
+    public static void write(Snapshot snapshot, File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Could not create directory " + parent);
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        boolean moved = false;
+        try {
+            try (FileOutputStream stream = new FileOutputStream(temp)) {
+                Writer out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+                writeJson(snapshot, out);
+                out.flush();
+                stream.getFD().sync();
+            }
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            moved = true;
+            syncDirectory(parent);
+        } finally {
+            if (!moved && temp.exists() && !temp.delete()) {
+                System.err.println("Could not delete temporary file: " + temp.getPath());
+            }
+        }
+    }
+
+    // Sincroniza la carpeta para que el renombrado también llegue al disco. Windows no
+    // permite abrir carpetas como archivo; ahí el renombrado ya es durable al volver.
+    private static void syncDirectory(File directory) {
+        if (directory == null) return;
+        try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Sin soporte en esta plataforma
+        }
+    }
+
+    // Documento con el formato que lee BeatmapJsonReader
+    static void writeJson(Snapshot snapshot, Writer out) throws IOException {
+        out.write("{\n");
+        out.write("  \"title\": ");
+        writeString(snapshot.title, out);
+        out.write(",\n  \"artist\": ");
+        writeString(snapshot.artist, out);
+        out.write(",\n  \"difficulty\": ");
+        writeString(snapshot.difficulty, out);
+        out.write(",\n  \"audioLeadIn\": " + snapshot.audioLeadIn);
+        out.write(",\n  \"previewTime\": " + snapshot.previewTime);
+        out.write(",\n  \"holdTickInterval\": " + snapshot.holdTickInterval);
+        out.write(",\n  \"judgeDifficulty\": " + snapshot.judgeDifficulty);
+        out.write(",\n  \"notes\": [\n");
+        int notes = snapshot.noteTimes.length;
+        for (int i = 0; i < notes; i++) {
+            out.write("    {\n");
+            out.write("      \"time\": " + snapshot.noteTimes[i] + ",\n");
+            out.write("      \"lane\": " + snapshot.noteLanes[i] + ",\n");
+            out.write(snapshot.noteHolds[i] ? "      \"type\": \"HOLD\"" : "      \"type\": \"TAP\"");
+            if (snapshot.noteHolds[i]) {
+                out.write(",\n      \"endTime\": " + snapshot.noteEndTimes[i]);
+            }
+            out.write(i < notes - 1 ? "\n    },\n" : "\n    }\n");
+        }
+        out.write("  ],\n");
+        out.write("  \"timingPoints\": [\n");
+        int timingPoints = snapshot.timingTimes.length;
+        for (int i = 0; i < timingPoints; i++) {
+            out.write("    {\n");
+            out.write("      \"time\": " + snapshot.timingTimes[i] + ",\n");
+            out.write("      \"bpm\": " + snapshot.timingBpms[i] + ",\n");
+            out.write("      \"scrollSpeed\": " + snapshot.timingScrollSpeeds[i] + "\n");
+            out.write(i < timingPoints - 1 ? "    },\n" : "    }\n");
+        }
+        out.write("  ]\n");
+        out.write("}");
+    }
+
+    // Cadena JSON con comillas, barras y caracteres de control escapados
+    static void writeString(String value, Writer out) throws IOException {
+        if (value == null) {
+            out.write("null");
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.write("\\\""); break;
+                case '\\': out.write("\\\\"); break;
+                case '\n': out.write("\\n"); break;
+                case '\r': out.write("\\r"); break;
+                case '\t': out.write("\\t"); break;
+                case '\b': out.write("\\b"); break;
+                case '\f': out.write("\\f"); break;
+                default:
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+}
@@ -0,0 +1,341 @@
+package com.game.taptap.gameplay;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Mapa compilado en binario (beatmap.ttc, junto a beatmap.json). Formato (little endian,
+// el orden nativo de las plataformas del juego, para leer los floats sin conversión):
+//   "TTCH", versión (int), hash (long), JSON de origen: tamaño, fecha y hash (long cada uno),
+//   carriles (int), notas (int),
+//   intervalo de ticks HOLD (float), dificultad de juicio (float),
+//   título, artista y dificultad (int con la longitud + UTF-8), audioLeadIn, previewTime,
+//   puntos de timing (int + tiempo, bpm y velocidad por punto), inicios de carril
+//   (int[carriles + 1]), relleno hasta múltiplo de 4 y luego las notas agrupadas por
+//   carril: tiempos (float[n]), finales (float[n]), carriles (byte[n]) y tipos (byte[n]).
+// El hash es FNV-1a de 64 bits sobre todos los bytes que siguen al campo del hash
+// (metadatos, puntos de timing y notas); al cargar se recalcula para detectar archivos
+// dañados. Los archivos chicos se leen a memoria; los grandes se mapean y el CompiledChart
+// lee las notas directo del mapeo, sin copiarlas. En Windows un archivo mapeado no se puede
+// reemplazar ni borrar hasta que el GC libera el mapeo: si eso falla se sigue con el mapa
+// en memoria y el .ttc viejo se descarta en la próxima carga (su JSON de origen cambió).
+// Con el tamaño y la fecha del JSON guardados, una carga con el .ttc al día no lee el JSON;
+// si solo cambió la fecha, el hash guardado evita recompilar un JSON con el mismo contenido.
+public final class ChartFile {
+    static final byte[] MAGIC = {'T', 'T', 'C', 'H'};
+    static final int VERSION = 3;
+    // Posición del hash y comienzo de los bytes que cubre
+    private static final int HASH_OFFSET = 8;
+    private static final int HASHED_START = HASH_OFFSET + 8;
+    // Hasta este tamaño el archivo se lee a un buffer en memoria en lugar de mapearlo
+    private static final long MAP_THRESHOLD = 4L * 1024 * 1024;
+    public static final String EXTENSION = "ttc";
+
+    // JSON del que se compiló un mapa: tamaño, fecha de modificación y hash FNV-1a de sus bytes
+    public static final class Source {
+        long length;
+        long lastModified;
+        long hash;
+
+        // Tamaño y fecha actuales del archivo (0 si está empaquetado, como en un jar: no cambia)
+        void stat(FileHandle json) {
+            File file = json.file();
+            length = file.isFile() ? file.length() : 0L;
+            lastModified = file.isFile() ? file.lastModified() : 0L;
+        }
+
+        boolean sameFile(Source other) {
+            return length == other.length && lastModified == other.lastModified;
+        }
+
+        public long getHash() { return hash; }
+        public long getLastModified() { return lastModified; }
+    }
+
+    private ChartFile() {
+    }
+
+    // Archivo compilado que corresponde a un beatmap.json
+    public static FileHandle compiledFileFor(FileHandle json) {
+        return json.sibling(json.nameWithoutExtension() + "." + EXTENSION);
+    }
+
+    // Carga el mapa compilado si existe y fue compilado desde el JSON actual; si no, lee el
+    // JSON, lo compila y escribe el .ttc para la próxima vez. Los metadatos van al Beatmap
+    // (recién creado: el JSON solo asigna los campos que trae) y los datos del JSON de
+    // origen a source.
+    public static CompiledChart loadOrCompile(FileHandle json, int laneCount, Beatmap beatmap, Source source) throws IOException {
+        FileHandle compiled = compiledFileFor(json);
+        File compiledFile = compiled.file();
+        File jsonFile = json.file();
+        source.stat(json);
+        boolean hashed = false;
+        if (compiledFile.isFile()) {
+            try {
+                // Los metadatos del .ttc van a un mapa aparte: si está desactualizado no deben
+                // quedar en el Beatmap cuando el JSON nuevo ya no tiene alguno de esos campos
+                Beatmap compiledMetadata = new Beatmap();
+                Source compiledFrom = new Source();
+                CompiledChart chart = load(compiledFile, compiledMetadata, compiledFrom);
+                boolean current = false;
+                if (chart.getLaneCount() != laneCount) {
+                    System.out.println("Compiled chart has " + chart.getLaneCount() + " lanes, recompiling: " + compiled.path());
+                } else if (!jsonFile.isFile() || compiledFrom.sameFile(source)) {
+                    current = true;
+                } else {
+                    // Cambió la fecha o el tamaño: solo se recompila si cambió el contenido
+                    source.hash = sourceHash(json);
+                    hashed = true;
+                    current = source.hash == compiledFrom.hash;
+                }
+                if (current) {
+                    source.hash = compiledFrom.hash;
+                    beatmap.copyMetadataFrom(compiledMetadata);
+                    return chart;
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Ignoring compiled chart " + compiled.path() + ": " + e.getMessage());
+            }
+        }
+
+        if (!hashed) {
+            source.hash = sourceHash(json);
+        }
+        NoteBuffer notes = new NoteBuffer();
+        BeatmapJsonReader.read(json, beatmap, notes);
+        CompiledChart chart = CompiledChart.compile(notes, laneCount, beatmap.getHoldTickInterval(), beatmap.getJudgeDifficulty());
+        if (jsonFile.isFile()) {
+            try {
+                write(compiledFile, beatmap, chart, source);
+                System.out.println("Compiled chart written: " + compiled.path());
+            } catch (IOException e) {
+                // Assets de solo lectura: se sigue con el mapa compilado en memoria
+                System.err.println("Could not write compiled chart " + compiled.path() + ": " + e.getMessage());
+            }
+        }
+        return chart;
+    }
+
+    // Hash FNV-1a de 64 bits de los bytes del JSON
+    static long sourceHash(FileHandle json) {
+        byte[] bytes = json.readBytes();
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // Lee o mapea el archivo y construye el mapa sobre ese buffer; el JSON de origen va a
+    // source. Lanza IllegalArgumentException si el archivo no es un mapa compilado válido o
+    // su hash no coincide.
+    public static CompiledChart load(File file, Beatmap beatmap, Source source) throws IOException {
+        ByteBuffer data;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size <= MAP_THRESHOLD) {
+                data = ByteBuffer.allocate((int) size);
+                while (data.hasRemaining()) {
+                    if (channel.read(data) < 0) break;
+                }
+                ((Buffer) data).flip();
+            } else {
+                // El mapeo sigue siendo válido después de cerrar el canal
+                data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+        }
+        data.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            return read(data, beatmap, source);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated compiled chart");
+        }
+    }
+
+    private static CompiledChart read(ByteBuffer data, Beatmap beatmap, Source source) {
+        for (byte b : MAGIC) {
+            if (data.get() != b) {
+                throw new IllegalArgumentException("Not a compiled chart");
+            }
+        }
+        int version = data.getInt();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported compiled chart version: " + version);
+        }
+        long hash = data.getLong();
+        if (hash(data, HASHED_START, data.limit()) != hash) {
+            throw new IllegalArgumentException("Compiled chart hash mismatch");
+        }
+        source.length = data.getLong();
+        source.lastModified = data.getLong();
+        source.hash = data.getLong();
+        int laneCount = data.getInt();
+        int noteCount = data.getInt();
+        float holdTickInterval = data.getFloat();
+        float judgeDifficulty = data.getFloat();
+        if (laneCount <= 0 || laneCount > Byte.MAX_VALUE || noteCount < 0) {
+            throw new IllegalArgumentException("Invalid compiled chart header");
+        }
+
+        beatmap.setTitle(readString(data));
+        beatmap.setArtist(readString(data));
+        beatmap.setDifficulty(readString(data));
+        beatmap.setAudioLeadIn(data.getFloat());
+        beatmap.setPreviewTime(data.getFloat());
+        beatmap.setHoldTickInterval(holdTickInterval);
+        beatmap.setJudgeDifficulty(judgeDifficulty);
+        int timingPoints = data.getInt();
+        for (int i = 0; i < timingPoints; i++) {
+            beatmap.addTimingPoint(new Beatmap.TimingPoint(data.getFloat(), data.getFloat(), data.getFloat()));
+        }
+
+        int[] laneOffsets = new int[laneCount + 1];
+        for (int lane = 0; lane <= laneCount; lane++) {
+            laneOffsets[lane] = data.getInt();
+            if (lane > 0 && laneOffsets[lane] < laneOffsets[lane - 1]) {
+                throw new IllegalArgumentException("Invalid lane offsets");
+            }
+        }
+        if (laneOffsets[0] != 0 || laneOffsets[laneCount] != noteCount) {
+            throw new IllegalArgumentException("Invalid lane offsets");
+        }
+
+        position(data, align(data.position()));
+        FloatBuffer times = slice(data, noteCount * 4).asFloatBuffer();
+        FloatBuffer endTimes = slice(data, noteCount * 4).asFloatBuffer();
+        ByteBuffer lanes = slice(data, noteCount);
+        ByteBuffer types = slice(data, noteCount);
+
+        return new CompiledChart(laneCount, laneOffsets, times, endTimes, lanes, types,
+            holdTickInterval, judgeDifficulty);
+    }
+
+    // Hash FNV-1a de 64 bits de los bytes [from, to) (sin mover la posición)
+    private static long hash(ByteBuffer data, int from, int to) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = from; i < to; i++) {
+            hash ^= data.get(i) & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // Vista de los siguientes length bytes (comparte el mapeo) y avanza la posición
+    private static ByteBuffer slice(ByteBuffer data, int length) {
+        ByteBuffer view = data.slice();
+        ((Buffer) view).limit(length);
+        position(data, data.position() + length);
+        return view.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // A través de Buffer: compilado con un JDK reciente, ByteBuffer.position(int) no
+    // existiría en tiempo de ejecución en Java 8
+    private static void position(ByteBuffer data, int position) {
+        ((Buffer) data).position(position);
+    }
+
+    private static String readString(ByteBuffer data) {
+        int length = data.getInt();
+        if (length < 0 || length > data.remaining()) {
+            throw new IllegalArgumentException("Invalid string length");
+        }
+        byte[] bytes = new byte[length];
+        data.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Escribe el mapa compilado; primero a un temporal y luego lo renombra, así una carga
+    // nunca ve un archivo a medio escribir. Si el destino sigue mapeado (Windows) el
+    // renombrado falla con IOException y el temporal se borra.
+    public static void write(File file, Beatmap beatmap, CompiledChart chart, Source source) throws IOException {
+        byte[] title = bytes(beatmap.getTitle());
+        byte[] artist = bytes(beatmap.getArtist());
+        byte[] difficulty = bytes(beatmap.getDifficulty());
+        int timingPoints = beatmap.getTimingPoints().size;
+        int laneCount = chart.getLaneCount();
+        int noteCount = chart.getNoteCount();
+
+        int headerSize = MAGIC.length + 4 + 8 + 8 + 8 + 8 + 4 + 4 + 4 + 4
+            + 4 + title.length + 4 + artist.length + 4 + difficulty.length + 4 + 4
+            + 4 + timingPoints * 12 + (laneCount + 1) * 4;
+        int notesStart = align(headerSize);
+        ByteBuffer data = ByteBuffer.allocate(notesStart + noteCount * 10).order(ByteOrder.LITTLE_ENDIAN);
+
+        data.put(MAGIC);
+        data.putInt(VERSION);
+        data.putLong(0L);
+        data.putLong(source.length);
+        data.putLong(source.lastModified);
+        data.putLong(source.hash);
+        data.putInt(laneCount);
+        data.putInt(noteCount);
+        data.putFloat(chart.getHoldTickInterval());
+        data.putFloat(chart.getJudgementWindows().getDifficulty());
+        data.putInt(title.length).put(title);
+        data.putInt(artist.length).put(artist);
+        data.putInt(difficulty.length).put(difficulty);
+        data.putFloat(beatmap.getAudioLeadIn());
+        data.putFloat(beatmap.getPreviewTime());
+        data.putInt(timingPoints);
+        for (Beatmap.TimingPoint timingPoint : beatmap.getTimingPoints()) {
+            data.putFloat(timingPoint.time).putFloat(timingPoint.bpm).putFloat(timingPoint.scrollSpeed);
+        }
+        for (int lane = 0; lane < laneCount; lane++) {
+            data.putInt(chart.laneStart(lane));
+        }
+        data.putInt(noteCount);
+
+        position(data, notesStart);
+        for (int i = 0; i < noteCount; i++) {
+            data.putFloat(chart.time(i));
+        }
+        for (int i = 0; i < noteCount; i++) {
+            data.putFloat(chart.endTime(i));
+        }
+        for (int i = 0; i < noteCount; i++) {
+            data.put((byte) chart.lane(i));
+        }
+        for (int i = 0; i < noteCount; i++) {
+            data.put(chart.type(i));
+        }
+
+        int size = data.position();
+        data.putLong(HASH_OFFSET, hash(data, HASHED_START, size));
+
+        File temp = new File(file.getPath() + ".tmp");
+        boolean moved = false;
+        try {
+            try (OutputStream out = new FileOutputStream(temp)) {
+                out.write(data.array(), 0, size);
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            moved = true;
+        } finally {
+            if (!moved && temp.exists() && !temp.delete()) {
+                System.err.println("Could not delete temporary file: " + temp.getPath());
+            }
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int align(int position) {
+        return (position + 3) & ~3;
+    }
+}
@@ -0,0 +1,39 @@
+package com.game.taptap.gameplay;
+
+// Ancla del reloj de la canción publicada para otros hilos con un seqlock: el único
+// escritor (el hilo de render) incrementa la secuencia antes y después de escribir y el
+// lector reintenta si la vio impar o si cambió mientras leía. Todos los campos son
+// volatile, así que la lectura es consistente sin locks y publicar no crea objetos.
+public class ClockAnchor {
+    private volatile int sequence;
+    private volatile boolean running;
+    private volatile long anchorNanos;
+    private volatile double anchorTime;
+    private volatile double rate = 1.0;
+
+    // Solo desde el hilo dueño del SongClock
+    void publish(boolean running, long anchorNanos, double anchorTime, double rate) {
+        sequence++;
+        this.running = running;
+        this.anchorNanos = anchorNanos;
+        this.anchorTime = anchorTime;
+        this.rate = rate;
+        sequence++;
+    }
+
+    // Tiempo de canción en un instante de System.nanoTime(), desde cualquier hilo
+    public double timeAt(long nanoTime) {
+        while (true) {
+            int before = sequence;
+            if ((before & 1) == 0) {
+                boolean isRunning = running;
+                long nanos = anchorNanos;
+                double time = anchorTime;
+                double currentRate = rate;
+                if (sequence == before) {
+                    return isRunning ? time + (nanoTime - nanos) * 1e-9 * currentRate : time;
+                }
+            }
+        }
+    }
+}
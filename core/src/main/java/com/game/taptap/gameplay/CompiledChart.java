@@ -0,0 +1,166 @@
+package com.game.taptap.gameplay;
+
+import com.badlogic.gdx.utils.Array;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+// Mapa compilado e inmutable para el bucle de juego. Las notas se guardan como arreglos
+// primitivos paralelos (tiempos, fin, carril, tipo), agrupadas por carril y ordenadas por
+// tiempo dentro de cada carril. Las notas del carril L ocupan [laneStart(L), laneEnd(L)).
+// Los arreglos se leen a través de buffers de NIO: al compilar envuelven arreglos del heap
+// y al cargar un .ttc (ChartFile) apuntan directo al archivo mapeado en memoria.
+// El estado de cada partida (golpeada, tipo de golpe) vive aparte en PlayState.
+// Los ticks de puntuación de cada HOLD y la tabla de ventanas de juicio se calculan
+// una sola vez al compilar.
+public class CompiledChart {
+    public static final byte TYPE_TAP = 0;
+    public static final byte TYPE_HOLD = 1;
+
+    private final int laneCount;
+    private final int[] laneOffsets;
+    private final int noteCount;
+    private final FloatBuffer times;
+    private final FloatBuffer endTimes;
+    private final ByteBuffer lanes;
+    private final ByteBuffer types;
+    private final float holdTickInterval;
+    private final int[] holdTicks;
+    private final JudgementWindows judgementWindows;
+
+    // Los buffers deben tener exactamente laneOffsets[laneCount] elementos desde la posición 0
+    CompiledChart(int laneCount, int[] laneOffsets, FloatBuffer times, FloatBuffer endTimes, ByteBuffer lanes,
+                  ByteBuffer types, float holdTickInterval, float judgeDifficulty) {
+        this.laneCount = laneCount;
+        this.laneOffsets = laneOffsets;
+        this.noteCount = laneOffsets[laneCount];
+        this.times = times;
+        this.endTimes = endTimes;
+        this.lanes = lanes;
+        this.types = types;
+        // Como mucho un tick por paso de simulación: un intervalo diminuto haría millones de
+        // ticks por nota (y de vueltas al contarlos)
+        this.holdTickInterval = holdTickInterval > 0f ? Math.max(holdTickInterval, GameplaySimulation.TICK_SECONDS) : 0f;
+        this.holdTicks = countHoldTicks();
+        this.judgementWindows = JudgementWindows.forDifficulty(judgeDifficulty);
+    }
+
+    // Ticks de cada HOLD: en time + k * intervalo, estrictamente antes del final
+    // (el final lo puntúa la nota completada)
+    private int[] countHoldTicks() {
+        int[] ticks = new int[noteCount];
+        if (holdTickInterval <= 0f) return ticks;
+        for (int i = 0; i < noteCount; i++) {
+            if (types.get(i) != TYPE_HOLD) continue;
+            int count = 0;
+            while (times.get(i) + (count + 1) * holdTickInterval < endTimes.get(i)) {
+                count++;
+            }
+            ticks[i] = count;
+        }
+        return ticks;
+    }
+
+    // Compila las notas del beatmap. Las notas fuera de rango se ignoran.
+    public static CompiledChart compile(Beatmap beatmap, int laneCount) {
+        Array<Note> notes = beatmap.getNotes();
+        NoteBuffer buffer = new NoteBuffer(notes.size);
+        for (int i = 0; i < notes.size; i++) {
+            buffer.add(notes.get(i));
+        }
+        return compile(buffer, laneCount, beatmap.getHoldTickInterval(), beatmap.getJudgeDifficulty());
+    }
+
+    // Compila notas en arreglos primitivos (por ejemplo las del lector de beatmap.json),
+    // ordenándolas por tiempo si hace falta. Las notas fuera de rango se ignoran.
+    public static CompiledChart compile(NoteBuffer notes, int laneCount, float holdTickInterval, float judgeDifficulty) {
+        notes.sortByTime();
+        int[] laneOffsets = new int[laneCount + 1];
+        for (int i = 0; i < notes.size(); i++) {
+            int lane = notes.lane(i);
+            if (lane >= 0 && lane < laneCount) {
+                laneOffsets[lane + 1]++;
+            }
+        }
+        for (int lane = 0; lane < laneCount; lane++) {
+            laneOffsets[lane + 1] += laneOffsets[lane];
+        }
+
+        int total = laneOffsets[laneCount];
+        float[] times = new float[total];
+        float[] endTimes = new float[total];
+        byte[] lanes = new byte[total];
+        byte[] types = new byte[total];
+
+        int[] fill = new int[laneCount];
+        System.arraycopy(laneOffsets, 0, fill, 0, laneCount);
+        for (int i = 0; i < notes.size(); i++) {
+            int lane = notes.lane(i);
+            if (lane < 0 || lane >= laneCount) continue;
+            int index = fill[lane]++;
+            times[index] = notes.time(i);
+            endTimes[index] = notes.endTime(i);
+            lanes[index] = (byte) lane;
+            types[index] = notes.type(i);
+        }
+
+        return new CompiledChart(laneCount, laneOffsets, FloatBuffer.wrap(times), FloatBuffer.wrap(endTimes),
+            ByteBuffer.wrap(lanes), ByteBuffer.wrap(types), holdTickInterval, judgeDifficulty);
+    }
+
+    public int getLaneCount() { return laneCount; }
+    public int getNoteCount() { return noteCount; }
+
+    // Rango global de las notas del carril: [laneStart, laneEnd)
+    public int laneStart(int lane) { return laneOffsets[lane]; }
+    public int laneEnd(int lane) { return laneOffsets[lane + 1]; }
+
+    public float time(int index) { return times.get(index); }
+    public float endTime(int index) { return endTimes.get(index); }
+    public int lane(int index) { return lanes.get(index); }
+    public byte type(int index) { return types.get(index); }
+    public boolean isHold(int index) { return types.get(index) == TYPE_HOLD; }
+
+    // Intervalo de los ticks de HOLD (0 = sin ticks) y cantidad de ticks de la nota
+    public float getHoldTickInterval() { return holdTickInterval; }
+    public JudgementWindows getJudgementWindows() { return judgementWindows; }
+    public int holdTickCount(int index) { return holdTicks[index]; }
+    // Tiempo del tick número tick (desde 1) de la nota HOLD
+    public float holdTickTime(int index, int tick) { return times.get(index) + tick * holdTickInterval; }
+
+    // Hash FNV-1a de 64 bits sobre el contenido del mapa (tiempos, carriles, tipos y, si
+    // hay, el intervalo de ticks). Identifica el mapa en las repeticiones grabadas.
+    public long contentHash() {
+        long hash = 0xcbf29ce484222325L;
+        hash = mix(hash, laneCount);
+        if (holdTickInterval > 0f) {
+            hash = mix(hash, Float.floatToIntBits(holdTickInterval));
+        }
+        if (judgementWindows != JudgementWindows.DEFAULT) {
+            hash = mix(hash, Float.floatToIntBits(judgementWindows.getDifficulty()));
+        }
+        for (int i = 0; i < noteCount; i++) {
+            hash = mix(hash, Float.floatToIntBits(times.get(i)));
+            hash = mix(hash, Float.floatToIntBits(endTimes.get(i)));
+            hash = mix(hash, (lanes.get(i) << 8) | types.get(i));
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, int value) {
+        for (int shift = 0; shift < 32; shift += 8) {
+            hash ^= (value >>> shift) & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // Duración total del mapa (fin de la última nota)
+    public float getDuration() {
+        float maxTime = 0f;
+        for (int i = 0; i < noteCount; i++) {
+            maxTime = Math.max(maxTime, endTimes.get(i));
+        }
+        return maxTime;
+    }
+}
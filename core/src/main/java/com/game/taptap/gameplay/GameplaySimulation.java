@@ -0,0 +1,119 @@
+package com.game.taptap.gameplay;
+
+// Simulación de la partida a paso fijo (1 kHz) independiente del render.
+// El tiempo es un contador entero de ticks; cada tick aplica las entradas que le
+// corresponden y avanza el juicio. Con la misma secuencia de entradas (carril, tick)
+// el resultado es idéntico bit a bit sin importar la tasa de refresco.
+// La cuenta regresiva son los ticks negativos: la canción empieza en el tick 0.
+public class GameplaySimulation {
+    public static final int TICK_RATE = 1000;
+    public static final float TICK_SECONDS = 1f / TICK_RATE;
+
+    private static final int CAPACITY = 256;
+
+    private final CompiledChart chart;
+    private final PlayState state;
+    private final JudgementEngine judgement;
+    private final long countdownTicks;
+    private long tick;
+    private ReplayRecorder recorder;
+
+    // Entradas pendientes en orden de tick (buffer circular preasignado)
+    private final int[] inputLane = new int[CAPACITY];
+    private final boolean[] inputPressed = new boolean[CAPACITY];
+    private final long[] inputTick = new long[CAPACITY];
+    private int head;
+    private int count;
+    private long lastInputTick;
+
+    public GameplaySimulation(CompiledChart chart, float countdownSeconds) {
+        this.chart = chart;
+        this.state = new PlayState(chart);
+        this.judgement = new JudgementEngine(chart, state);
+        this.countdownTicks = toTick(countdownSeconds);
+        reset();
+    }
+
+    // Vuelve al inicio de la cuenta regresiva con el estado limpio
+    public void reset() {
+        state.reset();
+        judgement.reset();
+        tick = -countdownTicks;
+        head = 0;
+        count = 0;
+        lastInputTick = tick;
+    }
+
+    // Encola una entrada para el tick dado. Una entrada que llega tarde (tick ya simulado
+    // o anterior a otra entrada) se aplica en el siguiente tick posible, de forma determinista.
+    // Devuelve el tick en el que se aplicará.
+    public long queueInput(int lane, boolean pressed, long atTick) {
+        if (count == CAPACITY) {
+            // Sin espacio: se simula hasta liberar la entrada más antigua
+            advanceTo(inputTick[head]);
+        }
+        long applyTick = Math.max(atTick, Math.max(tick + 1, lastInputTick));
+        int index = (head + count) % CAPACITY;
+        inputLane[index] = lane;
+        inputPressed[index] = pressed;
+        inputTick[index] = applyTick;
+        count++;
+        lastInputTick = applyTick;
+        if (recorder != null) {
+            recorder.record(applyTick, lane, pressed);
+        }
+        return applyTick;
+    }
+
+    // Graba cada entrada encolada con el tick en que se aplica (null para no grabar)
+    public void setRecorder(ReplayRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    // Simula todos los ticks hasta targetTick inclusive
+    public void advanceTo(long targetTick) {
+        while (tick < targetTick) {
+            step();
+        }
+    }
+
+    // Un tick: entradas de este tick y luego juicio (HOLD y fallos por tiempo)
+    public void step() {
+        tick++;
+        float time = timeOf(tick);
+        while (count > 0 && inputTick[head] <= tick) {
+            int lane = inputLane[head];
+            boolean pressed = inputPressed[head];
+            head = (head + 1) % CAPACITY;
+            count--;
+            if (pressed) {
+                judgement.press(lane, time);
+            } else {
+                judgement.release(lane, time);
+            }
+        }
+        judgement.update(time);
+    }
+
+    // Descarta las entradas pendientes (pausa, cuenta regresiva)
+    public void clearInput() {
+        head = 0;
+        count = 0;
+        lastInputTick = tick;
+    }
+
+    public static long toTick(double seconds) {
+        return (long) Math.floor(seconds * TICK_RATE);
+    }
+
+    public static float timeOf(long tick) {
+        return (float) (tick / (double) TICK_RATE);
+    }
+
+    public long getTick() { return tick; }
+    public float getTime() { return timeOf(tick); }
+    public boolean isCountdownFinished() { return tick >= 0; }
+    public CompiledChart getChart() { return chart; }
+    public PlayState getState() { return state; }
+    public JudgementEngine getJudgement() { return judgement; }
+}
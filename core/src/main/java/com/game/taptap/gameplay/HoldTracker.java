@@ -0,0 +1,81 @@
+package com.game.taptap.gameplay;
+
+// Seguimiento de las notas HOLD en curso: un hueco por carril con la nota sostenida y los
+// ticks ya puntuados. Los ticks caen cada holdTickInterval desde la cabeza; la nota se
+// completa al llegar a su final con la tecla abajo, o al soltarla dentro de la ventana
+// GOOD (de la tabla del mapa) antes del final. Soltarla antes la rompe. Sin objetos por frame.
+class HoldTracker {
+    private static final int NO_HOLD = -1;
+
+    private final CompiledChart chart;
+    private final JudgementEngine engine;
+    private final float releaseWindow;
+    private final int[] activeNote;
+    private final int[] ticksAwarded;
+
+    HoldTracker(CompiledChart chart, JudgementEngine engine) {
+        this.chart = chart;
+        this.engine = engine;
+        this.releaseWindow = chart.getJudgementWindows().getGoodWindow();
+        this.activeNote = new int[chart.getLaneCount()];
+        this.ticksAwarded = new int[chart.getLaneCount()];
+        reset();
+    }
+
+    void reset() {
+        for (int lane = 0; lane < activeNote.length; lane++) {
+            activeNote[lane] = NO_HOLD;
+            ticksAwarded[lane] = 0;
+        }
+    }
+
+    // La cabeza de la nota HOLD fue golpeada: el carril queda sostenido
+    void start(int lane, int note) {
+        activeNote[lane] = note;
+        ticksAwarded[lane] = 0;
+    }
+
+    // Tecla del carril soltada en releaseTime
+    void release(int lane, float releaseTime) {
+        int note = activeNote[lane];
+        if (note == NO_HOLD) return;
+
+        if (releaseTime >= chart.endTime(note) - releaseWindow) {
+            awardTicks(lane, note, chart.endTime(note));
+            finish(lane);
+            engine.holdCompleted(lane, note, releaseTime);
+        } else {
+            finish(lane);
+            engine.holdBroken(lane, note, releaseTime);
+        }
+    }
+
+    // Puntúa los ticks alcanzados y completa las notas que llegaron a su final
+    void update(float currentTime) {
+        for (int lane = 0; lane < activeNote.length; lane++) {
+            int note = activeNote[lane];
+            if (note == NO_HOLD) continue;
+
+            awardTicks(lane, note, currentTime);
+            if (currentTime >= chart.endTime(note)) {
+                finish(lane);
+                engine.holdCompleted(lane, note, currentTime);
+            }
+        }
+    }
+
+    private void awardTicks(int lane, int note, float until) {
+        int count = chart.holdTickCount(note);
+        int awarded = ticksAwarded[lane];
+        while (awarded < count && chart.holdTickTime(note, awarded + 1) <= until) {
+            awarded++;
+            engine.holdTick(lane, note);
+        }
+        ticksAwarded[lane] = awarded;
+    }
+
+    private void finish(int lane) {
+        activeNote[lane] = NO_HOLD;
+        ticksAwarded[lane] = 0;
+    }
+}
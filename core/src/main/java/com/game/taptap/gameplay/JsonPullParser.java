@@ -0,0 +1,318 @@
+package com.game.taptap.gameplay;
+
+import java.io.IOException;
+import java.io.Reader;
+
+// Lector JSON de tipo pull sobre un Reader con un buffer fijo: el llamador pide campo por
+// campo y valor por valor, sin construir un árbol. Los nombres y las cadenas se leen a un
+// buffer de caracteres reutilizable (se comparan sin crear Strings) y los números se
+// convierten sin pasar por String, así recorrer miles de notas casi no genera basura.
+// Es tolerante con las comas: no valida el documento, solo lo recorre.
+class JsonPullParser {
+    static final int OBJECT = 0;
+    static final int ARRAY = 1;
+    static final int STRING = 2;
+    static final int NUMBER = 3;
+    static final int LITERAL = 4;
+
+    private static final int BUFFER_SIZE = 8192;
+    // Dígitos significativos que caben en un long sin desbordar
+    private static final int MAX_DIGITS = 18;
+    // Potencias de 10 exactas en double
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private long consumed;
+
+    private char[] text = new char[64];
+    private int textLength;
+
+    JsonPullParser(Reader reader) {
+        this.reader = reader;
+    }
+
+    // Siguiente carácter sin espacios, sin consumirlo (-1 al final)
+    private int peekChar() throws IOException {
+        while (true) {
+            if (position == limit && !fill()) return -1;
+            char c = buffer[position];
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                position++;
+            } else {
+                return c;
+            }
+        }
+    }
+
+    private boolean fill() throws IOException {
+        consumed += limit;
+        position = 0;
+        limit = reader.read(buffer, 0, buffer.length);
+        if (limit <= 0) {
+            limit = 0;
+            return false;
+        }
+        return true;
+    }
+
+    private char readChar() throws IOException {
+        if (position == limit && !fill()) throw error("Unexpected end of input");
+        return buffer[position++];
+    }
+
+    private void expect(char expected) throws IOException {
+        int c = peekChar();
+        if (c != expected) throw error("Expected '" + expected + "'");
+        position++;
+    }
+
+    // Tipo del siguiente valor
+    int peek() throws IOException {
+        int c = peekChar();
+        if (c == '{') return OBJECT;
+        if (c == '[') return ARRAY;
+        if (c == '"') return STRING;
+        if (c == '-' || (c >= '0' && c <= '9')) return NUMBER;
+        if (c == 't' || c == 'f' || c == 'n') return LITERAL;
+        throw error(c < 0 ? "Unexpected end of input" : "Unexpected character '" + (char) c + "'");
+    }
+
+    void beginObject() throws IOException {
+        expect('{');
+    }
+
+    // Avanza al siguiente campo del objeto y deja su nombre en el buffer de texto.
+    // Devuelve false (y consume la llave) al llegar al final del objeto.
+    boolean nextField() throws IOException {
+        int c = peekChar();
+        if (c == ',') {
+            position++;
+            c = peekChar();
+        }
+        if (c == '}') {
+            position++;
+            return false;
+        }
+        readText();
+        expect(':');
+        return true;
+    }
+
+    void beginArray() throws IOException {
+        expect('[');
+    }
+
+    // Avanza al siguiente elemento del arreglo; false (y consume el corchete) al final
+    boolean nextElement() throws IOException {
+        int c = peekChar();
+        if (c == ',') {
+            position++;
+            c = peekChar();
+        }
+        if (c == ']') {
+            position++;
+            return false;
+        }
+        return true;
+    }
+
+    // Si el último nombre o cadena leído es igual a value
+    boolean textEquals(String value) {
+        if (value.length() != textLength) return false;
+        for (int i = 0; i < textLength; i++) {
+            if (text[i] != value.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    boolean textEqualsIgnoreCase(String value) {
+        if (value.length() != textLength) return false;
+        for (int i = 0; i < textLength; i++) {
+            if (Character.toUpperCase(text[i]) != Character.toUpperCase(value.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    // Lee una cadena al buffer de texto (comparar con textEquals)
+    void readText() throws IOException {
+        expect('"');
+        textLength = 0;
+        while (true) {
+            char c = readChar();
+            if (c == '"') return;
+            if (c == '\\') {
+                c = readEscape();
+            }
+            if (textLength == text.length) {
+                char[] grown = new char[text.length * 2];
+                System.arraycopy(text, 0, grown, 0, textLength);
+                text = grown;
+            }
+            text[textLength++] = c;
+        }
+    }
+
+    private char readEscape() throws IOException {
+        char c = readChar();
+        switch (c) {
+            case 'b': return '\b';
+            case 'f': return '\f';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 't': return '\t';
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(readChar(), 16);
+                    if (digit < 0) throw error("Invalid unicode escape");
+                    value = (value << 4) | digit;
+                }
+                return (char) value;
+            default:
+                return c;
+        }
+    }
+
+    // Lee una cadena como String (para metadatos; null si el valor es null)
+    String readString() throws IOException {
+        if (peek() == LITERAL) {
+            readLiteral();
+            return null;
+        }
+        readText();
+        return new String(text, 0, textLength);
+    }
+
+    int readInt() throws IOException {
+        return (int) readDouble();
+    }
+
+    float readFloat() throws IOException {
+        return (float) readDouble();
+    }
+
+    // Número JSON. Con hasta 15 dígitos significativos y exponente pequeño el resultado es
+    // una sola operación exacta en double; si no, se delega en Double.parseDouble.
+    double readDouble() throws IOException {
+        if (peek() != NUMBER) throw error("Expected a number");
+        textLength = 0;
+        boolean negative = false;
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+
+        int c = nextNumberChar();
+        if (c == '-') {
+            negative = true;
+            c = nextNumberChar();
+        }
+        while (c >= '0' && c <= '9') {
+            if (mantissa != 0 || c != '0') {
+                if (digits < MAX_DIGITS) mantissa = mantissa * 10 + (c - '0');
+                digits++;
+            }
+            c = nextNumberChar();
+        }
+        if (c == '.') {
+            c = nextNumberChar();
+            while (c >= '0' && c <= '9') {
+                if (mantissa != 0 || c != '0') {
+                    if (digits < MAX_DIGITS) mantissa = mantissa * 10 + (c - '0');
+                    digits++;
+                }
+                exponent--;
+                c = nextNumberChar();
+            }
+        }
+        if (c == 'e' || c == 'E') {
+            c = nextNumberChar();
+            boolean negativeExponent = c == '-';
+            if (c == '-' || c == '+') {
+                c = nextNumberChar();
+            }
+            int value = 0;
+            while (c >= '0' && c <= '9') {
+                if (value < 10000) value = value * 10 + (c - '0');
+                c = nextNumberChar();
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+        // El carácter que cerró el número pertenece al documento
+        if (c >= 0) {
+            position--;
+            textLength--;
+        }
+
+        if (digits > 15 || exponent > 22 || exponent < -22) {
+            return Double.parseDouble(new String(text, 0, textLength));
+        }
+        double result = mantissa;
+        if (exponent < 0) {
+            result /= POWERS_OF_TEN[-exponent];
+        } else {
+            result *= POWERS_OF_TEN[exponent];
+        }
+        return negative ? -result : result;
+    }
+
+    // Se guardan los caracteres del número por si hay que delegar en Double.parseDouble
+    private int nextNumberChar() throws IOException {
+        if (position == limit && !fill()) return -1;
+        char c = buffer[position++];
+        if (textLength == text.length) {
+            char[] grown = new char[text.length * 2];
+            System.arraycopy(text, 0, grown, 0, textLength);
+            text = grown;
+        }
+        text[textLength++] = c;
+        return c;
+    }
+
+    // true, false o null
+    boolean readLiteral() throws IOException {
+        int c = peekChar();
+        String literal = c == 't' ? "true" : c == 'f' ? "false" : "null";
+        for (int i = 0; i < literal.length(); i++) {
+            if (readChar() != literal.charAt(i)) throw error("Invalid literal");
+        }
+        return c == 't';
+    }
+
+    // Salta el siguiente valor completo (objetos y arreglos incluidos)
+    void skipValue() throws IOException {
+        switch (peek()) {
+            case OBJECT:
+                beginObject();
+                while (nextField()) {
+                    skipValue();
+                }
+                break;
+            case ARRAY:
+                beginArray();
+                while (nextElement()) {
+                    skipValue();
+                }
+                break;
+            case STRING:
+                readText();
+                break;
+            case NUMBER:
+                readDouble();
+                break;
+            default:
+                readLiteral();
+                break;
+        }
+    }
+
+    // Error de lectura con la posición en el documento
+    IOException error(String message) {
+        return new IOException(message + " at character " + (consumed + position));
+    }
+}
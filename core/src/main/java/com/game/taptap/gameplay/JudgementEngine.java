@@ -0,0 +1,187 @@
+package com.game.taptap.gameplay;
+
+import com.game.taptap.debug.FlightEvents;
+
+// Motor de juicio sin dependencias de render: recibe eventos de carril con su tiempo de
+// canción y produce juicios, puntuación y combo. Cada carril tiene un cursor a la primera
+// nota aún juzgable, así que cada entrada cuesta tiempo constante. Puede correr sin
+// contexto GL (pruebas, simulaciones, benchmarks). Las notas HOLD en curso las sigue
+// HoldTracker, con un hueco por carril. Las ventanas de juicio y los puntos salen de la
+// tabla JudgementWindows del mapa compilado.
+public class JudgementEngine {
+
+    // Notificaciones para la capa visual/sonora
+    public interface Listener {
+        // Nota golpeada (índice global en el mapa; offset = tiempo de golpe - tiempo de la nota)
+        void onHit(int lane, int note, Note.HitType hitType, float offset);
+        // Nota que pasó la ventana sin ser golpeada
+        void onMiss(int lane, int note);
+        // Nota HOLD soltada antes de tiempo
+        void onHoldBroken(int lane, int note);
+        // Nota HOLD sostenida hasta el final (o soltada dentro de la ventana GOOD)
+        void onHoldCompleted(int lane, int note);
+    }
+
+    public static final int HOLD_POINTS = 2;
+    public static final int HOLD_TICK_POINTS = 1;
+
+    private final CompiledChart chart;
+    private final PlayState state;
+    private final JudgementWindows windows;
+    private final int laneCount;
+    private final int[] judgeCursor;
+    private final boolean[] laneHolding;
+    private final HoldTracker holds;
+    private Listener listener;
+
+    private int score;
+    private int combo;
+    private int maxCombo;
+    private final int[] judgementCounts = new int[Note.HitType.values().length];
+
+    public JudgementEngine(CompiledChart chart, PlayState state) {
+        this.chart = chart;
+        this.state = state;
+        this.windows = chart.getJudgementWindows();
+        this.laneCount = chart.getLaneCount();
+        this.judgeCursor = new int[laneCount];
+        this.laneHolding = new boolean[laneCount];
+        this.holds = new HoldTracker(chart, this);
+        reset();
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    // Reinicia cursores, puntuación y combo (el PlayState se reinicia por separado)
+    public void reset() {
+        for (int lane = 0; lane < laneCount; lane++) {
+            judgeCursor[lane] = chart.laneStart(lane);
+            laneHolding[lane] = false;
+        }
+        holds.reset();
+        score = 0;
+        combo = 0;
+        maxCombo = 0;
+        for (int i = 0; i < judgementCounts.length; i++) {
+            judgementCounts[i] = 0;
+        }
+    }
+
+    // Tecla del carril presionada en hitTime
+    public void press(int lane, float hitTime) {
+        laneHolding[lane] = true;
+
+        int hitNote = findClosestHittableNote(lane, hitTime);
+        if (hitNote < 0) return;
+
+        float offset = hitTime - chart.time(hitNote);
+        Note.HitType hitType = windows.judge(offset);
+        if (hitType == Note.HitType.MISS) {
+            combo = 0;
+        } else {
+            combo++;
+        }
+
+        state.setHit(hitNote, hitType);
+        FlightEvents.judgement(lane, hitNote, hitType.name(), offset, hitTime);
+        score += JudgementWindows.points(hitType);
+        judgementCounts[hitType.ordinal()]++;
+        maxCombo = Math.max(maxCombo, combo);
+
+        if (chart.isHold(hitNote) && hitType != Note.HitType.MISS) {
+            state.setHoldState(hitNote, PlayState.HOLD_ACTIVE);
+            holds.start(lane, hitNote);
+        }
+
+        if (listener != null) {
+            listener.onHit(lane, hitNote, hitType, offset);
+        }
+    }
+
+    // Tecla del carril soltada en releaseTime
+    public void release(int lane, float releaseTime) {
+        laneHolding[lane] = false;
+        holds.release(lane, releaseTime);
+    }
+
+    // Avanza el juicio hasta currentTime: puntúa los ticks y finales de las notas HOLD
+    // sostenidas y marca como fallo las notas que salieron de la ventana sin ser golpeadas
+    public void update(float currentTime) {
+        holds.update(currentTime);
+        for (int lane = 0; lane < laneCount; lane++) {
+            int cursor = judgeCursor[lane];
+            int end = chart.laneEnd(lane);
+            float missBefore = currentTime - windows.getMissWindow();
+            while (cursor < end && chart.time(cursor) < missBefore) {
+                if (!state.isHit(cursor)) {
+                    state.setHit(cursor, Note.HitType.MISS);
+                    FlightEvents.judgement(lane, cursor, Note.HitType.MISS.name(), 0f, currentTime);
+                    combo = 0;
+                    judgementCounts[Note.HitType.MISS.ordinal()]++;
+                    if (listener != null) listener.onMiss(lane, cursor);
+                }
+                cursor++;
+            }
+            judgeCursor[lane] = cursor;
+        }
+    }
+
+    // Tick de una nota HOLD sostenida (lo llama HoldTracker)
+    void holdTick(int lane, int note) {
+        score += HOLD_TICK_POINTS;
+        combo++;
+        maxCombo = Math.max(maxCombo, combo);
+    }
+
+    // Nota HOLD sostenida hasta el final (lo llama HoldTracker; time = suelta o final)
+    void holdCompleted(int lane, int note, float time) {
+        state.setHoldState(note, PlayState.HOLD_COMPLETED);
+        FlightEvents.judgement(lane, note, "HOLD_COMPLETED", time - chart.endTime(note), time);
+        score += HOLD_POINTS;
+        if (listener != null) listener.onHoldCompleted(lane, note);
+    }
+
+    // Nota HOLD soltada antes de tiempo (lo llama HoldTracker)
+    void holdBroken(int lane, int note, float time) {
+        state.setHoldState(note, PlayState.HOLD_BROKEN);
+        FlightEvents.judgement(lane, note, "HOLD_BROKEN", time - chart.endTime(note), time);
+        combo = 0;
+        if (listener != null) listener.onHoldBroken(lane, note);
+    }
+
+    // Busca la nota sin golpear más cercana a hitTime dentro de la ventana de fallo.
+    // Solo recorre las notas del carril entre el cursor y hitTime + ventana de fallo.
+    // Devuelve el índice global de la nota o -1 si no hay ninguna.
+    private int findClosestHittableNote(int lane, float hitTime) {
+        int end = chart.laneEnd(lane);
+        int cursor = judgeCursor[lane];
+        while (cursor < end && state.isHit(cursor)) {
+            cursor++;
+        }
+        judgeCursor[lane] = cursor;
+
+        int closestNote = -1;
+        float closestDistance = Float.MAX_VALUE;
+        float latest = hitTime + windows.getMissWindow();
+        for (int i = cursor; i < end; i++) {
+            float noteTime = chart.time(i);
+            if (noteTime > latest) break;
+            if (state.isHit(i)) continue;
+            float distance = Math.abs(noteTime - hitTime);
+            if (windows.isHittable(distance) && distance < closestDistance) {
+                closestDistance = distance;
+                closestNote = i;
+            }
+        }
+        return closestNote;
+    }
+
+    public boolean isLaneHolding(int lane) { return laneHolding[lane]; }
+    public int getScore() { return score; }
+    public int getCombo() { return combo; }
+    public int getMaxCombo() { return maxCombo; }
+    // Cantidad de juicios de cada tipo en la partida (notas falladas incluidas)
+    public int getJudgementCount(Note.HitType hitType) { return judgementCounts[hitType.ordinal()]; }
+}
@@ -0,0 +1,259 @@
+package com.game.taptap.gameplay;
+
+import com.game.taptap.debug.AllocationMeter;
+
+import java.util.concurrent.locks.LockSupport;
+
+// Hilo de juicio de alta prioridad: mientras corre es el dueño de la GameplaySimulation.
+// Cada milisegundo (o en cuanto llega una entrada) lee el reloj publicado por el hilo de
+// render, encola las entradas del LaneInputSource y simula hasta el tick actual, así un
+// frame lento no retrasa los juicios de las entradas guionadas (repetición, autoplay).
+// Las entradas en vivo solo las conoce el render al vaciar la cola de carriles: después de
+// entregarlas publica una marca ("entradas completas hasta este tick") y la simulación no
+// pasa de ella, así un fallo por tiempo o un HOLD completado nunca se decide antes de ver
+// una pulsación que llegó a tiempo pero se entregó tarde por un tirón del render.
+// Hacia el render publica los eventos de juicio por un SpscLongRing y la puntuación, el
+// combo y los carriles sostenidos en campos volatile. Arrancar y detener (join) el hilo
+// transfiere la simulación entre hilos; mientras está detenido la usa el hilo de render.
+// En modo inline no crea el hilo: el dueño llama a runOnce una vez por frame y el resto
+// (anillos de eventos, listener, valores publicados) es el mismo. Lo usa el benchmark
+// headless, que simula más rápido que el tiempo real.
+public class JudgementThread implements JudgementEngine.Listener {
+    public static final int EVENT_HIT = 0;
+    public static final int EVENT_MISS = 1;
+    public static final int EVENT_HOLD_BROKEN = 2;
+    public static final int EVENT_HOLD_COMPLETED = 3;
+
+    private static final long PERIOD_NANOS = 1_000_000L;
+    // Iteraciones (ms) que no cuentan para la medición de memoria en modo debug
+    private static final int ALLOCATION_WARMUP = 2000;
+    private static final int NO_HIT_TYPE = 7;
+    private static final Note.HitType[] HIT_TYPES = Note.HitType.values();
+
+    private final GameplaySimulation simulation;
+    private final ClockAnchor clock;
+    private final boolean inline;
+    private final SpscLongRing liveInput = new SpscLongRing(1024);
+    private final SpscLongRing events = new SpscLongRing(8192);
+    private final LaneInputSource liveInputSource = this::pumpLiveInput;
+
+    private volatile boolean running;
+    private volatile int score;
+    private volatile int combo;
+    private volatile int maxCombo;
+    private volatile int holdingMask;
+    // Último tick con todas las entradas en vivo entregadas (sin límite con entradas guionadas)
+    private volatile long inputWatermark;
+    private Thread thread;
+    private boolean inlineRunning;
+    private LaneInputSource source;
+    private long lastEventTick;
+    private AllocationMeter allocations;
+
+    public JudgementThread(GameplaySimulation simulation, ClockAnchor clock) {
+        this(simulation, clock, false);
+    }
+
+    public JudgementThread(GameplaySimulation simulation, ClockAnchor clock, boolean inline) {
+        this.simulation = simulation;
+        this.clock = clock;
+        this.inline = inline;
+    }
+
+    // Arranca el hilo; source == null usa las entradas en vivo de offerInput
+    public void start(LaneInputSource inputSource) {
+        if (isRunning()) return;
+        source = inputSource != null ? inputSource : liveInputSource;
+        inputWatermark = inputSource != null ? Long.MAX_VALUE : simulation.getTick();
+        simulation.getJudgement().setListener(this);
+        refresh();
+        if (inline) {
+            inlineRunning = true;
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "judgement");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+
+    // Detiene el hilo y espera a que termine; después la simulación vuelve al llamador
+    public void stop() {
+        if (inlineRunning) {
+            inlineRunning = false;
+            release();
+            return;
+        }
+        if (thread == null) return;
+        running = false;
+        LockSupport.unpark(thread);
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+        release();
+    }
+
+    private void release() {
+        simulation.getJudgement().setListener(null);
+        liveInput.clear();
+        events.clear();
+    }
+
+    public boolean isRunning() {
+        return thread != null || inlineRunning;
+    }
+
+    // Modo inline: una iteración del hilo en el llamador (con hilo propio no hace nada)
+    public void runOnce(long nowNanos) {
+        if (inlineRunning) {
+            iterate(nowNanos);
+        }
+    }
+
+    private void iterate(long nowNanos) {
+        // La marca se lee antes de vaciar las entradas: todo lo entregado hasta ella ya está en el anillo
+        long watermark = inputWatermark;
+        long targetTick = Math.min(GameplaySimulation.toTick(clock.timeAt(nowNanos)), watermark);
+        source.pump(simulation, targetTick);
+        simulation.advanceTo(targetTick);
+        refresh();
+    }
+
+    private void run() {
+        AllocationMeter meter = AllocationMeter.DEBUG ? new AllocationMeter(ALLOCATION_WARMUP) : null;
+        long nextWake = System.nanoTime();
+        while (running) {
+            long now = System.nanoTime();
+            iterate(now);
+            if (meter != null) meter.frame();
+
+            nextWake = Math.max(nextWake + PERIOD_NANOS, now);
+            long sleep = nextWake - System.nanoTime();
+            if (sleep > 0) {
+                LockSupport.parkNanos(sleep);
+            }
+        }
+        // stop() hace join, así que el llamador ve el medidor completo
+        allocations = meter;
+    }
+
+    // Publica puntuación, combo y carriles sostenidos de la simulación. Lo llama el hilo
+    // de juicio; desde otro hilo solo con el hilo detenido (por ejemplo tras un reinicio).
+    public void refresh() {
+        JudgementEngine judgement = simulation.getJudgement();
+        score = judgement.getScore();
+        combo = judgement.getCombo();
+        maxCombo = judgement.getMaxCombo();
+        int mask = 0;
+        for (int lane = 0; lane < simulation.getChart().getLaneCount(); lane++) {
+            if (judgement.isLaneHolding(lane)) {
+                mask |= 1 << lane;
+            }
+        }
+        holdingMask = mask;
+    }
+
+    // Hilo de render: entrega una entrada en vivo (tick de canción ya calculado) y despierta al hilo
+    public void offerInput(int lane, boolean pressed, long tick) {
+        if (liveInput.offer((tick << 4) | ((long) lane << 1) | (pressed ? 1L : 0L)) && thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    // Hilo de render: ya se entregaron (offerInput) todas las entradas en vivo hasta tick
+    public void publishInputWatermark(long tick) {
+        if (tick > inputWatermark) {
+            inputWatermark = tick;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    private void pumpLiveInput(GameplaySimulation target, long targetTick) {
+        while (liveInput.available() > 0) {
+            long value = liveInput.take();
+            target.queueInput((int) ((value >> 1) & 7), (value & 1L) != 0, value >> 4);
+        }
+    }
+
+    // Hilo de render: entrega los eventos de juicio pendientes al listener en orden
+    public void drainEvents(JudgementEngine.Listener listener) {
+        while (events.available() >= 2) {
+            long tick = events.take();
+            long packed = events.take();
+            int kind = (int) (packed & 3);
+            int lane = (int) ((packed >>> 2) & 15);
+            int hitType = (int) ((packed >>> 6) & 7);
+            int offsetTicks = (short) (packed >>> 9);
+            int note = (int) (packed >>> 25);
+            lastEventTick = tick;
+            switch (kind) {
+                case EVENT_HIT:
+                    listener.onHit(lane, note, HIT_TYPES[hitType], offsetTicks / (float) GameplaySimulation.TICK_RATE);
+                    break;
+                case EVENT_MISS:
+                    listener.onMiss(lane, note);
+                    break;
+                case EVENT_HOLD_BROKEN:
+                    listener.onHoldBroken(lane, note);
+                    break;
+                default:
+                    listener.onHoldCompleted(lane, note);
+                    break;
+            }
+        }
+    }
+
+    // Tick de simulación del evento que se está entregando en drainEvents
+    public long getEventTick() { return lastEventTick; }
+
+    // Evento empaquetado: tipo (2 bits), carril (4), tipo de golpe (3), desfase en ticks con
+    // signo (16, tick de la entrada - tick de la nota) y el índice de la nota en el resto
+    private void publish(int kind, int lane, int note, int hitType, int offsetTicks) {
+        long packed = kind | ((long) lane << 2) | ((long) hitType << 6)
+            | ((long) (offsetTicks & 0xFFFF) << 9) | ((long) note << 25);
+        events.offer(simulation.getTick(), packed);
+    }
+
+    // Listener del JudgementEngine: corre en el hilo de juicio
+    @Override
+    public void onHit(int lane, int note, Note.HitType hitType, float offset) {
+        long offsetTicks = Math.round((double) offset * GameplaySimulation.TICK_RATE);
+        int clamped = (int) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, offsetTicks));
+        publish(EVENT_HIT, lane, note, hitType.ordinal(), clamped);
+    }
+
+    @Override
+    public void onMiss(int lane, int note) {
+        publish(EVENT_MISS, lane, note, NO_HIT_TYPE, 0);
+    }
+
+    @Override
+    public void onHoldBroken(int lane, int note) {
+        publish(EVENT_HOLD_BROKEN, lane, note, NO_HIT_TYPE, 0);
+    }
+
+    @Override
+    public void onHoldCompleted(int lane, int note) {
+        publish(EVENT_HOLD_COMPLETED, lane, note, NO_HIT_TYPE, 0);
+    }
+
+    public int getScore() { return score; }
+    public int getCombo() { return combo; }
+    public int getMaxCombo() { return maxCombo; }
+    public boolean isLaneHolding(int lane) { return (holdingMask & (1 << lane)) != 0; }
+    public long getDroppedEvents() { return events.getDropped(); }
+    // Memoria reservada por iteración en la última corrida (solo con -Dtaptap.debug=true)
+    public AllocationMeter getAllocations() { return allocations; }
+}
@@ -0,0 +1,93 @@
+package com.game.taptap.gameplay;
+
+// Tabla única de ventanas de juicio, escalada por la dificultad de juicio del mapa
+// (judgeDifficulty en beatmap.json, de 0 a 10; 5 es la tabla base). Se precalcula al
+// cargar una tabla por milisegundo de distancia, así juzgar un golpe es una sola lectura.
+// La simulación avanza en ticks de 1 ms, por lo que la resolución de la tabla es exacta.
+// La comparten el motor de juicio, las notas sueltas, el HUD y la puntuación.
+public final class JudgementWindows {
+    public static final float DEFAULT_DIFFICULTY = 5f;
+    public static final float MIN_DIFFICULTY = 0f;
+    public static final float MAX_DIFFICULTY = 10f;
+
+    // Ventanas base (dificultad 5) en segundos
+    public static final float BASE_PERFECT = 0.05f;
+    public static final float BASE_GREAT = 0.10f;
+    public static final float BASE_GOOD = 0.15f;
+    public static final float BASE_MISS = 0.18f;
+
+    // Cada punto de dificultad estrecha (o ensancha) las ventanas un 6%
+    private static final float SCALE_PER_POINT = 0.06f;
+
+    private static final Note.HitType[] HIT_TYPES = Note.HitType.values();
+    private static final int[] POINTS = {3, 2, 1, 0};
+
+    public static final JudgementWindows DEFAULT = new JudgementWindows(DEFAULT_DIFFICULTY);
+
+    private final float difficulty;
+    private final float perfectWindow;
+    private final float greatWindow;
+    private final float goodWindow;
+    private final float missWindow;
+    private final int missMillis;
+    // Tipo de golpe (ordinal) por milisegundo de distancia, de 0 a missMillis
+    private final byte[] table;
+
+    private JudgementWindows(float difficulty) {
+        this.difficulty = difficulty;
+        float scale = 1f - (difficulty - DEFAULT_DIFFICULTY) * SCALE_PER_POINT;
+        int perfectMillis = Math.round(BASE_PERFECT * scale * 1000f);
+        int greatMillis = Math.round(BASE_GREAT * scale * 1000f);
+        int goodMillis = Math.round(BASE_GOOD * scale * 1000f);
+        this.missMillis = Math.round(BASE_MISS * scale * 1000f);
+        this.perfectWindow = perfectMillis / 1000f;
+        this.greatWindow = greatMillis / 1000f;
+        this.goodWindow = goodMillis / 1000f;
+        this.missWindow = missMillis / 1000f;
+
+        this.table = new byte[missMillis + 1];
+        for (int millis = 0; millis <= missMillis; millis++) {
+            Note.HitType hitType;
+            if (millis <= perfectMillis) {
+                hitType = Note.HitType.PERFECT;
+            } else if (millis <= greatMillis) {
+                hitType = Note.HitType.GREAT;
+            } else if (millis <= goodMillis) {
+                hitType = Note.HitType.GOOD;
+            } else {
+                hitType = Note.HitType.MISS;
+            }
+            table[millis] = (byte) hitType.ordinal();
+        }
+    }
+
+    // Tabla para la dificultad dada (limitada a 0..10); la base se comparte
+    public static JudgementWindows forDifficulty(float difficulty) {
+        // NaN pasaría por Math.max/Math.min y dejaría todas las ventanas en NaN (nada se golpea)
+        if (Float.isNaN(difficulty)) difficulty = DEFAULT_DIFFICULTY;
+        float clamped = Math.max(MIN_DIFFICULTY, Math.min(MAX_DIFFICULTY, difficulty));
+        return clamped == DEFAULT_DIFFICULTY ? DEFAULT : new JudgementWindows(clamped);
+    }
+
+    // Tipo de golpe para un desfase (tiempo de golpe - tiempo de la nota); fuera de la
+    // ventana de fallo también es MISS
+    public Note.HitType judge(float offset) {
+        int millis = (int) (Math.abs(offset) * 1000f + 0.5f);
+        return millis > missMillis ? Note.HitType.MISS : HIT_TYPES[table[millis]];
+    }
+
+    // Si un golpe a esta distancia de la nota llega a juzgarla (aunque sea como fallo)
+    public boolean isHittable(float distance) {
+        return (int) (distance * 1000f + 0.5f) <= missMillis;
+    }
+
+    public static int points(Note.HitType hitType) {
+        return POINTS[hitType.ordinal()];
+    }
+
+    public float getDifficulty() { return difficulty; }
+    public float getPerfectWindow() { return perfectWindow; }
+    public float getGreatWindow() { return greatWindow; }
+    public float getGoodWindow() { return goodWindow; }
+    public float getMissWindow() { return missWindow; }
+}
@@ -0,0 +1,113 @@
+package com.game.taptap.gameplay;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputAdapter;
+
+// Cola de eventos de carril (presionar/soltar) con marca de tiempo en nanosegundos.
+// Cada evento se estampa cuando llega al backend, así el juicio usa el tiempo exacto
+// de la pulsación y no el del frame en que se procesa.
+public class LaneInputQueue extends InputAdapter {
+
+    // Recibe los eventos en orden al vaciar la cola
+    public interface Listener {
+        void onLaneEvent(int lane, boolean pressed, long eventNanos);
+    }
+
+    public static final int[] DEFAULT_KEYS = {
+        Input.Keys.A, Input.Keys.S, Input.Keys.D, Input.Keys.F
+    };
+
+    private static final int CAPACITY = 256;
+
+    private final int[] laneKeys;
+    private final boolean[] keyDown;
+
+    // Buffer circular preasignado: no se crea ningún objeto por evento
+    private final int[] eventLane = new int[CAPACITY];
+    private final boolean[] eventPressed = new boolean[CAPACITY];
+    private final long[] eventNanos = new long[CAPACITY];
+    private int head;
+    private int count;
+    private int dropped;
+
+    public LaneInputQueue() {
+        this(DEFAULT_KEYS);
+    }
+
+    public LaneInputQueue(int[] laneKeys) {
+        this.laneKeys = laneKeys;
+        this.keyDown = new boolean[laneKeys.length];
+    }
+
+    @Override
+    public boolean keyDown(int keycode) {
+        int lane = laneForKey(keycode);
+        if (lane < 0) return false;
+        if (!keyDown[lane]) {
+            keyDown[lane] = true;
+            push(lane, true, eventTime());
+        }
+        return true;
+    }
+
+    @Override
+    public boolean keyUp(int keycode) {
+        int lane = laneForKey(keycode);
+        if (lane < 0) return false;
+        if (keyDown[lane]) {
+            keyDown[lane] = false;
+            push(lane, false, eventTime());
+        }
+        return true;
+    }
+
+    // Entrega todos los eventos pendientes en orden de llegada y vacía la cola
+    public void drain(Listener listener) {
+        while (count > 0) {
+            int index = head;
+            head = (head + 1) % CAPACITY;
+            count--;
+            listener.onLaneEvent(eventLane[index], eventPressed[index], eventNanos[index]);
+        }
+    }
+
+    // Descarta los eventos pendientes (cuenta regresiva, pausa) sin perder el estado de las teclas
+    public void clear() {
+        head = 0;
+        count = 0;
+    }
+
+    public boolean isLaneDown(int lane) {
+        return keyDown[lane];
+    }
+
+    public int getDroppedEvents() {
+        return dropped;
+    }
+
+    private void push(int lane, boolean pressed, long nanos) {
+        if (count == CAPACITY) {
+            dropped++;
+            return;
+        }
+        int index = (head + count) % CAPACITY;
+        eventLane[index] = lane;
+        eventPressed[index] = pressed;
+        eventNanos[index] = nanos;
+        count++;
+    }
+
+    private int laneForKey(int keycode) {
+        for (int lane = 0; lane < laneKeys.length; lane++) {
+            if (laneKeys[lane] == keycode) return lane;
+        }
+        return -1;
+    }
+
+    // El backend marca cada evento con TimeUtils.nanoTime() al recibirlo (misma base que System.nanoTime)
+    private static long eventTime() {
+        long nanos = Gdx.input != null ? Gdx.input.getCurrentEventTime() : 0L;
+        return nanos != 0L ? nanos : System.nanoTime();
+    }
+}
@@ -0,0 +1,8 @@
+package com.game.taptap.gameplay;
+
+// Origen de las entradas de carril que alimentan la simulación: el teclado en vivo,
+// una repetición grabada, etc. Antes de simular hasta targetTick se le pide que encole
+// en la simulación todas las entradas que tenga hasta ese tick.
+public interface LaneInputSource {
+    void pump(GameplaySimulation simulation, long targetTick);
+}
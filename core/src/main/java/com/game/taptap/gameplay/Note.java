@@ -90,19 +90,14 @@ public class Note {
         this.hitType = hitType;
     }
     
-    // Metodo para determinar si fue fallo, bien o perfecto
+    // Metodo para determinar si fue fallo, bien o perfecto (ventanas base)
     public HitType getHitType(float currentTime) {
-        float timingDifference = Math.abs(currentTime - time);
-        
-        if (timingDifference <= 0.05f) {
-            return HitType.PERFECT;
-        } else if (timingDifference <= 0.1f) {
-            return HitType.GREAT;
-        } else if (timingDifference <= 0.15f) {
-            return HitType.GOOD;
-        } else {
-            return HitType.MISS;
-        }
+        return getHitType(currentTime, JudgementWindows.DEFAULT);
+    }
+    
+    // Igual, con las ventanas de juicio del mapa
+    public HitType getHitType(float currentTime, JudgementWindows windows) {
+        return windows.judge(currentTime - time);
     }
     
     // Revisa si fue golpeada la nota
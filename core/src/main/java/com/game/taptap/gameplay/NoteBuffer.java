@@ -0,0 +1,99 @@
+package com.game.taptap.gameplay;
+
+import java.util.Arrays;
+
+// Notas de un mapa en arreglos primitivos que crecen al agregar (tiempo, fin, carril, tipo),
+// sin un objeto Note por entrada. Es el paso intermedio entre la lectura del JSON y el
+// CompiledChart: se agregan en cualquier orden y se ordenan una sola vez al compilar.
+public class NoteBuffer {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private float[] times;
+    private float[] endTimes;
+    private byte[] lanes;
+    private byte[] types;
+    private int size;
+
+    public NoteBuffer() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public NoteBuffer(int capacity) {
+        capacity = Math.max(1, capacity);
+        this.times = new float[capacity];
+        this.endTimes = new float[capacity];
+        this.lanes = new byte[capacity];
+        this.types = new byte[capacity];
+    }
+
+    // Agrega una nota; type es CompiledChart.TYPE_TAP o TYPE_HOLD
+    public void add(float time, float endTime, int lane, byte type) {
+        if (size == times.length) {
+            grow();
+        }
+        times[size] = time;
+        endTimes[size] = endTime;
+        // Un carril fuera del rango de byte queda como -1 (se ignora al compilar)
+        lanes[size] = lane < 0 || lane > Byte.MAX_VALUE ? -1 : (byte) lane;
+        types[size] = type;
+        size++;
+    }
+
+    public void add(Note note) {
+        add(note.getTime(), note.getEndTime(), note.getLane(),
+            note.getType() == Note.NoteType.HOLD ? CompiledChart.TYPE_HOLD : CompiledChart.TYPE_TAP);
+    }
+
+    private void grow() {
+        int capacity = times.length * 2;
+        times = Arrays.copyOf(times, capacity);
+        endTimes = Arrays.copyOf(endTimes, capacity);
+        lanes = Arrays.copyOf(lanes, capacity);
+        types = Arrays.copyOf(types, capacity);
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    // Ordena por tiempo de forma estable. Si ya están en orden (lo normal en un mapa guardado
+    // por el editor) solo cuesta una pasada; si no, ordena claves primitivas (tiempo, índice).
+    public void sortByTime() {
+        boolean sorted = true;
+        for (int i = 1; i < size && sorted; i++) {
+            sorted = times[i - 1] <= times[i];
+        }
+        if (sorted) return;
+
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            int bits = Float.floatToIntBits(times[i]);
+            // Orden total de floats como enteros con signo
+            bits ^= (bits >> 31) & 0x7fffffff;
+            keys[i] = ((long) bits << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        float[] sortedTimes = new float[times.length];
+        float[] sortedEndTimes = new float[times.length];
+        byte[] sortedLanes = new byte[times.length];
+        byte[] sortedTypes = new byte[times.length];
+        for (int i = 0; i < size; i++) {
+            int from = (int) keys[i];
+            sortedTimes[i] = times[from];
+            sortedEndTimes[i] = endTimes[from];
+            sortedLanes[i] = lanes[from];
+            sortedTypes[i] = types[from];
+        }
+        times = sortedTimes;
+        endTimes = sortedEndTimes;
+        lanes = sortedLanes;
+        types = sortedTypes;
+    }
+
+    public int size() { return size; }
+    public float time(int index) { return times[index]; }
+    public float endTime(int index) { return endTimes[index]; }
+    public int lane(int index) { return lanes[index]; }
+    public byte type(int index) { return types[index]; }
+}
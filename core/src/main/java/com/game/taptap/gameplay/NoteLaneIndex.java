@@ -0,0 +1,63 @@
+package com.game.taptap.gameplay;
+
+// Cursores de aparición y retiro por carril sobre un CompiledChart.
+// Las notas activas de cada carril son las del rango [despawn, spawn), así que activar
+// o retirar una nota cuesta O(1) amortizado sin importar lo largo que sea el mapa.
+public class NoteLaneIndex {
+    private final CompiledChart chart;
+    private final int[] spawnCursor;
+    private final int[] despawnCursor;
+
+    public NoteLaneIndex(CompiledChart chart) {
+        this.chart = chart;
+        this.spawnCursor = new int[chart.getLaneCount()];
+        this.despawnCursor = new int[chart.getLaneCount()];
+        reset();
+    }
+
+    // Vuelve los cursores al inicio del mapa
+    public void reset() {
+        for (int lane = 0; lane < spawnCursor.length; lane++) {
+            spawnCursor[lane] = chart.laneStart(lane);
+            despawnCursor[lane] = chart.laneStart(lane);
+        }
+    }
+
+    // Activa todas las notas cuyo tiempo sea menor o igual a spawnTime
+    public void spawnUntil(float spawnTime) {
+        for (int lane = 0; lane < spawnCursor.length; lane++) {
+            int cursor = spawnCursor[lane];
+            int end = chart.laneEnd(lane);
+            while (cursor < end && chart.time(cursor) <= spawnTime) {
+                cursor++;
+            }
+            spawnCursor[lane] = cursor;
+        }
+    }
+
+    // Retira las notas activas del carril que terminaron antes de despawnTime
+    // (una nota HOLD sigue activa hasta su final)
+    public void retireBefore(int lane, float despawnTime) {
+        int cursor = despawnCursor[lane];
+        int end = spawnCursor[lane];
+        while (cursor < end && chart.endTime(cursor) < despawnTime) {
+            cursor++;
+        }
+        despawnCursor[lane] = cursor;
+    }
+
+    public CompiledChart getChart() { return chart; }
+
+    // Rango global de notas activas del carril: [getActiveStart, getActiveEnd)
+    public int getActiveStart(int lane) { return despawnCursor[lane]; }
+    public int getActiveEnd(int lane) { return spawnCursor[lane]; }
+
+    // Número total de notas activas en todos los carriles
+    public int getActiveCount() {
+        int count = 0;
+        for (int lane = 0; lane < spawnCursor.length; lane++) {
+            count += spawnCursor[lane] - despawnCursor[lane];
+        }
+        return count;
+    }
+}
@@ -0,0 +1,58 @@
+package com.game.taptap.gameplay;
+
+import java.util.Arrays;
+
+// Estado de una partida sobre un CompiledChart: un bitset de notas golpeadas, un byte
+// por nota con el tipo de golpe y otro con el estado de las notas HOLD. Reiniciarlo no
+// toca el mapa compilado.
+public class PlayState {
+    // Estados de una nota HOLD
+    public static final byte HOLD_NONE = 0;
+    public static final byte HOLD_ACTIVE = 1;
+    public static final byte HOLD_COMPLETED = 2;
+    public static final byte HOLD_BROKEN = 3;
+
+    private static final Note.HitType[] HIT_TYPES = Note.HitType.values();
+    private static final byte NO_HIT_TYPE = -1;
+
+    private final long[] hitBits;
+    private final byte[] hitTypes;
+    private final byte[] holdStates;
+
+    public PlayState(CompiledChart chart) {
+        int noteCount = chart.getNoteCount();
+        this.hitBits = new long[(noteCount + 63) >>> 6];
+        this.hitTypes = new byte[noteCount];
+        this.holdStates = new byte[noteCount];
+        reset();
+    }
+
+    public void reset() {
+        Arrays.fill(hitBits, 0L);
+        Arrays.fill(hitTypes, NO_HIT_TYPE);
+        Arrays.fill(holdStates, HOLD_NONE);
+    }
+
+    public boolean isHit(int index) {
+        return (hitBits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    // Marca la nota como golpeada (o fallada) con el tipo de golpe indicado
+    public void setHit(int index, Note.HitType hitType) {
+        hitBits[index >>> 6] |= 1L << index;
+        hitTypes[index] = (byte) hitType.ordinal();
+    }
+
+    public Note.HitType getHitType(int index) {
+        byte hitType = hitTypes[index];
+        return hitType == NO_HIT_TYPE ? null : HIT_TYPES[hitType];
+    }
+
+    public byte getHoldState(int index) {
+        return holdStates[index];
+    }
+
+    public void setHoldState(int index, byte holdState) {
+        holdStates[index] = holdState;
+    }
+}
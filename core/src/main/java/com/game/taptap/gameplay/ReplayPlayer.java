@@ -0,0 +1,104 @@
+package com.game.taptap.gameplay;
+
+import com.badlogic.gdx.files.FileHandle;
+
+// Reproduce una grabación de ReplayRecorder como origen de entradas de la simulación,
+// en lugar del teclado. Decodifica los eventos sobre la marcha sin crear objetos.
+public class ReplayPlayer implements LaneInputSource {
+    private final byte[] data;
+    private final long chartHash;
+    private final int eventCount;
+    private final int eventsStart;
+
+    private int position;
+    private int eventsRead;
+    private long nextTick;
+    private int nextLane;
+    private boolean nextPressed;
+
+    // Lee y valida la cabecera; lanza IllegalArgumentException si el archivo no es una repetición válida
+    public ReplayPlayer(byte[] data) {
+        this.data = data;
+        if (data.length < ReplayRecorder.MAGIC.length + 1 + 8) {
+            throw new IllegalArgumentException("Replay too short");
+        }
+        for (int i = 0; i < ReplayRecorder.MAGIC.length; i++) {
+            if (data[i] != ReplayRecorder.MAGIC[i]) {
+                throw new IllegalArgumentException("Not a replay file");
+            }
+        }
+        position = ReplayRecorder.MAGIC.length;
+        int version = data[position++];
+        if (version != ReplayRecorder.VERSION) {
+            throw new IllegalArgumentException("Unsupported replay version: " + version);
+        }
+        long hash = 0L;
+        for (int i = 0; i < 8; i++) {
+            hash = (hash << 8) | (data[position++] & 0xFF);
+        }
+        this.chartHash = hash;
+        long tickRate = readVarint();
+        if (tickRate != GameplaySimulation.TICK_RATE) {
+            throw new IllegalArgumentException("Unsupported replay tick rate: " + tickRate);
+        }
+        this.eventCount = (int) readVarint();
+        this.eventsStart = position;
+        rewind();
+    }
+
+    public static ReplayPlayer load(FileHandle file) {
+        return new ReplayPlayer(file.readBytes());
+    }
+
+    // Indica si la repetición se grabó sobre este mismo mapa
+    public boolean matches(CompiledChart chart) {
+        return chart.contentHash() == chartHash;
+    }
+
+    // Vuelve al primer evento (para reintentar la reproducción)
+    public void rewind() {
+        position = eventsStart;
+        eventsRead = 0;
+        nextTick = 0L;
+        readNext();
+    }
+
+    @Override
+    public void pump(GameplaySimulation simulation, long targetTick) {
+        while (hasPending() && nextTick <= targetTick) {
+            simulation.queueInput(nextLane, nextPressed, nextTick);
+            readNext();
+        }
+    }
+
+    public boolean isFinished() { return !hasPending(); }
+    public int getEventCount() { return eventCount; }
+
+    private boolean hasPending() {
+        return nextLane >= 0;
+    }
+
+    private void readNext() {
+        if (eventsRead >= eventCount || position >= data.length) {
+            nextLane = -1;
+            return;
+        }
+        long value = readVarint();
+        nextTick += value >>> 4;
+        nextLane = (int) ((value >>> 1) & (ReplayRecorder.MAX_LANES - 1));
+        nextPressed = (value & 1L) != 0;
+        eventsRead++;
+    }
+
+    private long readVarint() {
+        long value = 0L;
+        int shift = 0;
+        while (position < data.length) {
+            byte b = data[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) break;
+            shift += 7;
+        }
+        return value;
+    }
+}
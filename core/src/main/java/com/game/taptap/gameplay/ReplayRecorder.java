@@ -0,0 +1,84 @@
+package com.game.taptap.gameplay;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import java.util.Arrays;
+
+// Graba las entradas de carril de una partida tal como las aplicó la simulación.
+// Formato binario (big endian):
+//   "TTRP", versión (1 byte), hash del mapa (8 bytes), ticks por segundo (varint),
+//   número de eventos (varint) y luego un varint por evento:
+//   (ticks desde el evento anterior << 4) | (carril << 1) | presionado.
+// Un golpe típico ocupa 2 bytes, así que 5 minutos de juego caben en unos pocos KB.
+// El buffer es preasignado: grabar un evento no crea objetos.
+public class ReplayRecorder {
+    static final byte[] MAGIC = {'T', 'T', 'R', 'P'};
+    static final int VERSION = 1;
+    static final int MAX_LANES = 8;
+
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+
+    private byte[] events = new byte[INITIAL_CAPACITY];
+    private int length;
+    private int eventCount;
+    private long chartHash;
+    private long lastTick;
+
+    // Empieza una grabación nueva para el mapa dado
+    public void begin(CompiledChart chart) {
+        chartHash = chart.contentHash();
+        length = 0;
+        eventCount = 0;
+        lastTick = 0;
+    }
+
+    // Registra una entrada en el tick en que la simulación la aplica (ticks no decrecientes)
+    public void record(long tick, int lane, boolean pressed) {
+        if (lane < 0 || lane >= MAX_LANES) return;
+        long delta = Math.max(0L, tick - lastTick);
+        lastTick = Math.max(lastTick, tick);
+        long value = (delta << 4) | ((long) lane << 1) | (pressed ? 1L : 0L);
+        if (length + 10 > events.length) {
+            // Solo en grabaciones muy largas
+            events = Arrays.copyOf(events, events.length * 2);
+        }
+        length = writeVarint(events, length, value);
+        eventCount++;
+    }
+
+    public int getEventCount() { return eventCount; }
+
+    // Serializa la grabación completa (cabecera + eventos)
+    public byte[] toBytes() {
+        byte[] header = new byte[MAGIC.length + 1 + 8 + 10 + 10];
+        int position = 0;
+        for (byte b : MAGIC) {
+            header[position++] = b;
+        }
+        header[position++] = (byte) VERSION;
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            header[position++] = (byte) (chartHash >>> shift);
+        }
+        position = writeVarint(header, position, GameplaySimulation.TICK_RATE);
+        position = writeVarint(header, position, eventCount);
+
+        byte[] data = new byte[position + length];
+        System.arraycopy(header, 0, data, 0, position);
+        System.arraycopy(events, 0, data, position, length);
+        return data;
+    }
+
+    public void save(FileHandle file) {
+        file.writeBytes(toBytes(), false);
+    }
+
+    // Varint sin signo (7 bits por byte, el bit alto indica que sigue otro byte)
+    static int writeVarint(byte[] buffer, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+}
@@ -0,0 +1,95 @@
+package com.game.taptap.gameplay;
+
+import com.badlogic.gdx.utils.Array;
+
+// Tabla de posición de scroll precalculada a partir de los puntos de timing.
+// Cada punto abre un segmento con velocidad = scrollSpeed * (bpm / bpm base); la posición
+// acumulada al inicio de cada segmento se calcula una vez al cargar, así que pasar de
+// tiempo a posición es una búsqueda binaria más una multiplicación-suma.
+// Sin puntos de timing la posición es igual al tiempo (velocidad constante 1).
+public class ScrollMap {
+    private final float[] times;
+    private final float[] positions;
+    private final float[] velocities;
+
+    private ScrollMap(float[] times, float[] positions, float[] velocities) {
+        this.times = times;
+        this.positions = positions;
+        this.velocities = velocities;
+    }
+
+    // Construye la tabla; los puntos deben venir ordenados por tiempo (Beatmap los mantiene así).
+    // Un bpm <= 0 hereda el bpm anterior y las velocidades negativas se tratan como 0.
+    public static ScrollMap build(Array<Beatmap.TimingPoint> timingPoints) {
+        if (timingPoints.size == 0) {
+            return new ScrollMap(new float[] {0f}, new float[] {0f}, new float[] {1f});
+        }
+
+        float baseBpm = 0f;
+        for (int i = 0; i < timingPoints.size && baseBpm <= 0f; i++) {
+            baseBpm = timingPoints.get(i).getBpm();
+        }
+
+        int count = timingPoints.size;
+        float[] times = new float[count];
+        float[] positions = new float[count];
+        float[] velocities = new float[count];
+        float bpm = baseBpm;
+        for (int i = 0; i < count; i++) {
+            Beatmap.TimingPoint point = timingPoints.get(i);
+            if (point.getBpm() > 0f) {
+                bpm = point.getBpm();
+            }
+            float bpmRatio = baseBpm > 0f ? bpm / baseBpm : 1f;
+            times[i] = point.getTime();
+            velocities[i] = Math.max(0f, point.getScrollSpeed() * bpmRatio);
+            if (i > 0) {
+                positions[i] = positions[i - 1] + (times[i] - times[i - 1]) * velocities[i - 1];
+            }
+        }
+        return new ScrollMap(times, positions, velocities);
+    }
+
+    // Posición de scroll en el tiempo dado (antes del primer punto se usa su velocidad)
+    public float positionAt(float time) {
+        int segment = segmentAt(time);
+        return positions[segment] + (time - times[segment]) * velocities[segment];
+    }
+
+    // Tiempo en que el scroll alcanza la posición dada (inversa de positionAt).
+    // Devuelve Float.MAX_VALUE si el scroll se detiene antes de llegar.
+    public float timeAtPosition(float position) {
+        int low = 0;
+        int high = positions.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (positions[mid] <= position) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        // Un segmento detenido solo puede quedar aquí si es el último (o si la posición es anterior a todo)
+        if (velocities[low] == 0f) {
+            return position <= positions[low] ? times[low] : Float.MAX_VALUE;
+        }
+        return times[low] + (position - positions[low]) / velocities[low];
+    }
+
+    // Último segmento que empieza en o antes del tiempo dado (0 si es anterior a todos)
+    private int segmentAt(float time) {
+        int low = 0;
+        int high = times.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (times[mid] <= time) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    public int getSegmentCount() { return times.length; }
+}
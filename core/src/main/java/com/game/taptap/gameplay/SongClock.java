@@ -0,0 +1,157 @@
+package com.game.taptap.gameplay;
+
+import com.badlogic.gdx.audio.Music;
+
+// Reloj de la canción: avanza con un temporizador monotónico de alta resolución (System.nanoTime)
+// y se corrige contra Music.getPosition(). La posición del audio avanza a saltos (un buffer a la vez),
+// por eso solo se toma una muestra cuando cambia y la deriva se corrige ajustando levemente la
+// velocidad del reloj (slew) en lugar de saltar, salvo que la deriva sea demasiado grande.
+public class SongClock {
+    // Corrección máxima de velocidad mientras se ajusta la deriva (±5%)
+    private static final double MAX_SLEW = 0.05;
+    // Fracción de la deriva que se corrige por segundo
+    private static final double SLEW_GAIN = 0.5;
+    // Deriva a partir de la cual se resincroniza de golpe (seek, tirón largo, audio reiniciado)
+    private static final double SNAP_THRESHOLD = 0.1;
+    // Suavizado exponencial de las muestras de deriva
+    private static final double DRIFT_SMOOTHING = 0.25;
+
+    private Music music;
+    private boolean running;
+
+    private long anchorNanos;
+    private double anchorTime;
+    private double rate;
+
+    // Copia del ancla que pueden leer otros hilos (hilo de juicio)
+    private final ClockAnchor sharedAnchor = new ClockAnchor();
+
+    private float lastAudioPosition;
+    private double smoothedDrift;
+    private float frameTime;
+
+    public SongClock() {
+        this(null);
+    }
+
+    public SongClock(Music music) {
+        this.music = music;
+        reset(0f);
+    }
+
+    public void setMusic(Music music) {
+        this.music = music;
+    }
+
+    // Detiene el reloj y lo coloca en songTime
+    public void reset(float songTime) {
+        reset(songTime, System.nanoTime());
+    }
+
+    // Con el instante explícito (el benchmark headless usa un tiempo virtual)
+    public void reset(float songTime, long nowNanos) {
+        running = false;
+        anchorNanos = nowNanos;
+        anchorTime = songTime;
+        rate = 1.0;
+        lastAudioPosition = -1f;
+        smoothedDrift = 0.0;
+        frameTime = songTime;
+        publish();
+    }
+
+    // Arranca el reloj desde songTime
+    public void start(float songTime) {
+        start(songTime, System.nanoTime());
+    }
+
+    public void start(float songTime, long nowNanos) {
+        reset(songTime, nowNanos);
+        running = true;
+        publish();
+    }
+
+    public void pause() {
+        if (!running) return;
+        long now = System.nanoTime();
+        anchorTime = timeAt(now);
+        anchorNanos = now;
+        running = false;
+        publish();
+    }
+
+    public void resume() {
+        if (running) return;
+        anchorNanos = System.nanoTime();
+        rate = 1.0;
+        lastAudioPosition = -1f;
+        smoothedDrift = 0.0;
+        running = true;
+        publish();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Muestrea el reloj una vez por frame y corrige la deriva contra el audio
+    public void update() {
+        update(System.nanoTime());
+    }
+
+    public void update(long nowNanos) {
+        if (running && music != null && music.isPlaying()) {
+            float audioPosition = music.getPosition();
+            if (audioPosition != lastAudioPosition) {
+                lastAudioPosition = audioPosition;
+                correctDrift(audioPosition, nowNanos);
+            }
+        }
+        frameTime = (float) timeAt(nowNanos);
+    }
+
+    private void correctDrift(float audioPosition, long nowNanos) {
+        double predicted = timeAt(nowNanos);
+        double drift = audioPosition - predicted;
+
+        if (Math.abs(drift) > SNAP_THRESHOLD) {
+            anchorNanos = nowNanos;
+            anchorTime = audioPosition;
+            rate = 1.0;
+            smoothedDrift = 0.0;
+            publish();
+            return;
+        }
+
+        smoothedDrift += (drift - smoothedDrift) * DRIFT_SMOOTHING;
+        double correction = Math.max(-MAX_SLEW, Math.min(MAX_SLEW, smoothedDrift * SLEW_GAIN));
+
+        // Re-anclar en el tiempo predicho mantiene la continuidad: solo cambia la pendiente
+        anchorNanos = nowNanos;
+        anchorTime = predicted;
+        rate = 1.0 + correction;
+        publish();
+    }
+
+    private void publish() {
+        sharedAnchor.publish(running, anchorNanos, anchorTime, rate);
+    }
+
+    // Vista del reloj segura para leer desde otros hilos
+    public ClockAnchor getSharedAnchor() {
+        return sharedAnchor;
+    }
+
+    // Tiempo de canción del frame actual (el mismo para toda la lógica y el render del frame)
+    public float getTime() {
+        return frameTime;
+    }
+
+    // Tiempo de canción exacto en un instante de System.nanoTime()
+    public double timeAt(long nanoTime) {
+        if (!running) {
+            return anchorTime;
+        }
+        return anchorTime + (nanoTime - anchorNanos) * 1e-9 * rate;
+    }
+}
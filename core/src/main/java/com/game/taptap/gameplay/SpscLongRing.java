@@ -0,0 +1,69 @@
+package com.game.taptap.gameplay;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Buffer circular sin locks de un productor y un consumidor para valores long.
+// El productor escribe los valores y luego publica la cola con lazySet (release);
+// el consumidor lee la cola (acquire), consume y libera el espacio de la misma forma.
+// Los eventos de dos valores se publican juntos, así el consumidor nunca ve medio evento.
+public class SpscLongRing {
+    private final long[] buffer;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private long dropped;
+
+    // La capacidad se redondea a la siguiente potencia de dos
+    public SpscLongRing(int capacity) {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.buffer = new long[size];
+        this.mask = size - 1;
+    }
+
+    // Productor: agrega un valor; devuelve false (y lo cuenta) si no hay espacio
+    public boolean offer(long value) {
+        long currentTail = tail.get();
+        if (currentTail - head.get() >= buffer.length) {
+            dropped++;
+            return false;
+        }
+        buffer[(int) currentTail & mask] = value;
+        tail.lazySet(currentTail + 1);
+        return true;
+    }
+
+    // Productor: agrega dos valores como un solo evento
+    public boolean offer(long first, long second) {
+        long currentTail = tail.get();
+        if (currentTail + 2 - head.get() > buffer.length) {
+            dropped++;
+            return false;
+        }
+        buffer[(int) currentTail & mask] = first;
+        buffer[(int) (currentTail + 1) & mask] = second;
+        tail.lazySet(currentTail + 2);
+        return true;
+    }
+
+    // Consumidor: valores disponibles para leer
+    public int available() {
+        return (int) (tail.get() - head.get());
+    }
+
+    // Consumidor: lee el siguiente valor (llamar solo si available() > 0)
+    public long take() {
+        long currentHead = head.get();
+        long value = buffer[(int) currentHead & mask];
+        head.lazySet(currentHead + 1);
+        return value;
+    }
+
+    // Vacía el buffer; solo cuando ningún otro hilo lo está usando
+    public void clear() {
+        head.set(0L);
+        tail.set(0L);
+    }
+
+    // Eventos descartados por falta de espacio (solo lo escribe el productor)
+    public long getDropped() { return dropped; }
+}
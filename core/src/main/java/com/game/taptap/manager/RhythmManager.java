@@ -8,6 +8,7 @@ import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Json;
 import com.badlogic.gdx.utils.JsonValue;
+import com.game.taptap.debug.FlightEvents;
 import com.game.taptap.model.RhythmInfo;
 
 // Metodo para cargar y gestionar ritmos disponibles en la carpeta Rhythms
@@ -104,9 +105,7 @@ public class RhythmManager {
             FileHandle backgroundFile = assetsFolder.child("Background.png");
             if (backgroundFile.exists()) {
                 String assetPath = "Rhythms/" + folder.name() + "/" + assetsFolder.name() + "/Background.png";
-                assetManager.load(assetPath, Texture.class);
-                assetManager.finishLoadingAsset(assetPath);
-                rhythm.setBackgroundTexture(assetManager.get(assetPath, Texture.class));
+                rhythm.setBackgroundTexture(loadAsset(assetPath, Texture.class, backgroundFile));
                 System.out.println("Cargado Background para: " + rhythm.getTitle());
             }
             
@@ -114,9 +113,7 @@ public class RhythmManager {
             FileHandle bannerFile = assetsFolder.child("Banner.png");
             if (bannerFile.exists()) {
                 String assetPath = "Rhythms/" + folder.name() + "/" + assetsFolder.name() + "/Banner.png";
-                assetManager.load(assetPath, Texture.class);
-                assetManager.finishLoadingAsset(assetPath);
-                rhythm.setBannerTexture(assetManager.get(assetPath, Texture.class));
+                rhythm.setBannerTexture(loadAsset(assetPath, Texture.class, bannerFile));
                 System.out.println("Cargado Banner para: " + rhythm.getTitle());
             }
             
@@ -129,9 +126,7 @@ public class RhythmManager {
             
             if (vinylFile.exists()) {
                 String assetPath = "Rhythms/" + folder.name() + "/" + assetsFolder.name() + "/" + vinylFile.name();
-                assetManager.load(assetPath, Texture.class);
-                assetManager.finishLoadingAsset(assetPath);
-                rhythm.setVinylTexture(assetManager.get(assetPath, Texture.class));
+                rhythm.setVinylTexture(loadAsset(assetPath, Texture.class, vinylFile));
             } else {
             }
             
@@ -149,9 +144,7 @@ public class RhythmManager {
                         if (fileName.endsWith(ext)) {
                             String assetPath = "Rhythms/" + folder.name() + "/" + assetsFolder.name() + "/" + assetFile.name();
                             try {
-                                assetManager.load(assetPath, Music.class);
-                                assetManager.finishLoadingAsset(assetPath);
-                                rhythm.setMusic(assetManager.get(assetPath, Music.class));
+                                rhythm.setMusic(loadAsset(assetPath, Music.class, assetFile));
                                 musicFound = true;
                                 break;
                             } catch (Exception musicEx) {
@@ -170,6 +163,16 @@ public class RhythmManager {
         }
     }
     
+    // Carga síncrona de un asset; queda registrada como evento JFR (ruta, tamaño y duración)
+    private <T> T loadAsset(String assetPath, Class<T> type, FileHandle file) {
+        Object loadEvent = FlightEvents.beginAssetLoad();
+        assetManager.load(assetPath, type);
+        assetManager.finishLoadingAsset(assetPath);
+        T asset = assetManager.get(assetPath, type);
+        FlightEvents.endAssetLoad(loadEvent, assetPath, type.getSimpleName(), file.length());
+        return asset;
+    }
+    
     // Obtencion de los ritmos disponibles
     public Array<RhythmInfo> getAvailableRhythms() {
         return availableRhythms;
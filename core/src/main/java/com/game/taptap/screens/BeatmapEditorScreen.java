@@ -11,9 +11,15 @@ import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.game.taptap.TapTapGame;
+import com.game.taptap.debug.FrameProfiler;
 import com.game.taptap.gameplay.Beatmap;
+import com.game.taptap.gameplay.BeatmapCache;
+import com.game.taptap.gameplay.BeatmapWriter;
 import com.game.taptap.gameplay.Note;
 
+import java.io.File;
+import java.io.IOException;
+
 // Editor profesional de beatmaps con interfaz visual intuitiva
 public class BeatmapEditorScreen implements Screen {
     
@@ -76,6 +82,12 @@ public class BeatmapEditorScreen implements Screen {
     private boolean spacePressed = false;
     private boolean hasUnsavedChanges = false;
     
+    // Guardado en segundo plano: mientras corre no se inicia otro
+    private boolean saving = false;
+    private String saveStatus = null;
+    private Color saveStatusColor = Color.WHITE;
+    private final BeatmapWriter.Listener saveListener = createSaveListener();
+    
     public BeatmapEditorScreen(TapTapGame game, String rhythmPath) {
         this.game = game;
         this.rhythmPath = rhythmPath;
@@ -85,7 +97,7 @@ public class BeatmapEditorScreen implements Screen {
     
     @Override
     public void show() {
-        beatmap = new Beatmap();
+        loadBeatmap();
         font = game.font;
         if (game.assetManager.isLoaded(TapTapGame.CURSOR_SOUND)) {
             placementSound = game.assetManager.get(TapTapGame.CURSOR_SOUND, Sound.class);
@@ -95,6 +107,18 @@ public class BeatmapEditorScreen implements Screen {
         System.out.println("Editor de Beatmaps iniciado");
     }
     
+    // Abre el beatmap guardado del ritmo (si existe) para seguir editándolo
+    private void loadBeatmap() {
+        String beatmapPath = rhythmPath + "/beatmap.json";
+        if (Gdx.files.internal(beatmapPath).exists()) {
+            beatmap = Beatmap.loadFromFile(beatmapPath);
+            System.out.println("Beatmap cargado: " + beatmap.getNotes().size + " notas");
+        } else {
+            beatmap = new Beatmap();
+        }
+        hasUnsavedChanges = false;
+    }
+    
     private void loadEditorMusic() {
         try {
             String musicPath = rhythmPath + "/assets/";
@@ -223,10 +247,19 @@ public class BeatmapEditorScreen implements Screen {
     @Override
     public void render(float delta) {
         ScreenUtils.clear(0.05f, 0.05f, 0.1f, 1f);
+        FrameProfiler profiler = game.profiler;
+        profiler.begin(FrameProfiler.Phase.UPDATE);
         update(delta);
+        profiler.end(FrameProfiler.Phase.UPDATE);
+        profiler.begin(FrameProfiler.Phase.CONTROLS);
         handleInput();
+        profiler.end(FrameProfiler.Phase.CONTROLS);
+        profiler.begin(FrameProfiler.Phase.PLAYFIELD);
         drawEditor();
+        profiler.end(FrameProfiler.Phase.PLAYFIELD);
+        profiler.begin(FrameProfiler.Phase.HUD);
         drawUI();
+        profiler.end(FrameProfiler.Phase.HUD);
     }
     
     private void update(float delta) {
@@ -459,6 +492,14 @@ public class BeatmapEditorScreen implements Screen {
             font.setColor(Color.WHITE);
             font.draw(game.batch, "S - Guardar", startX, y); y -= lineSpacing;
         }
+        if (saving) {
+            font.setColor(Color.LIGHT_GRAY);
+            font.draw(game.batch, "Guardando...", startX, y); y -= lineSpacing;
+        } else if (saveStatus != null) {
+            font.setColor(saveStatusColor);
+            font.draw(game.batch, saveStatus, startX, y); y -= lineSpacing;
+        }
+        font.setColor(Color.WHITE);
 
         // Instrucciones para Hold
         if (currentMode == EditMode.HOLD) {
@@ -725,31 +766,22 @@ public class BeatmapEditorScreen implements Screen {
     }
     
     private void saveBeatmap() {
-        // Crear información del beatmap basada en el ritmo seleccionado
-        if (rhythmPath.contains("Doom Slayer")) {
-            beatmap.setTitle("The Only Thing They Fear Is You");
-            beatmap.setArtist("Mick Gordon");
-            beatmap.setDifficulty("Editor");
-        } else if (rhythmPath.contains("FF16")) {
-            beatmap.setTitle("Final Fantasy XVI");
-            beatmap.setArtist("Masayoshi Soken");
-            beatmap.setDifficulty("Editor");
-        } else if (rhythmPath.contains("Mashle")) {
-            beatmap.setTitle("Serious Steel");
-            beatmap.setArtist("Anime OST");
-            beatmap.setDifficulty("Editor");
-        } else {
-            beatmap.setTitle("Beatmap Editado");
-            beatmap.setArtist("Editor");
-            beatmap.setDifficulty("Normal");
+        if (saving) {
+            System.out.println("Guardado en curso, espera a que termine");
+            return;
         }
         
-        // Guardar en el path del ritmo
-        String beatmapPath = rhythmPath + "/beatmap.json";
-        beatmap.saveToFile(beatmapPath);
+        // Un mapa abierto desde archivo conserva sus metadatos
+        if (beatmap.getTitle().isEmpty()) {
+            applyDefaultMetadata();
+        }
         
+        // Guardar en el path del ritmo (en segundo plano, sobre una copia del mapa); los
+        // cambios hechos mientras se guarda vuelven a marcar el mapa como no guardado
+        saving = true;
         hasUnsavedChanges = false;
-        System.out.println("Beatmap guardado en: " + beatmapPath);
+        beatmap.saveToFileAsync(rhythmPath + "/beatmap.json", saveListener);
+        
         System.out.println("Título: " + beatmap.getTitle());
         System.out.println("Artista: " + beatmap.getArtist());
         System.out.println("Total de notas: " + beatmap.getNotes().size);
@@ -766,9 +798,52 @@ public class BeatmapEditorScreen implements Screen {
             }
             System.out.println("Lane " + LANE_KEYS[lane] + ": " + tapCount + " TAP, " + holdCount + " HOLD");
         }
-        
-        if (placementSound != null) {
-            placementSound.play();
+    }
+    
+    // Resultado del guardado (llega en el hilo de render)
+    private BeatmapWriter.Listener createSaveListener() {
+        return new BeatmapWriter.Listener() {
+            @Override
+            public void onSaved(File file, int noteCount) {
+                saving = false;
+                BeatmapCache.invalidate(Gdx.files.internal(rhythmPath + "/beatmap.json"));
+                saveStatus = "Guardado (" + noteCount + " notas)";
+                saveStatusColor = Color.GREEN;
+                System.out.println("Beatmap guardado en: " + file.getPath());
+                if (placementSound != null) {
+                    placementSound.play();
+                }
+            }
+            
+            @Override
+            public void onSaveFailed(File file, IOException error) {
+                saving = false;
+                hasUnsavedChanges = true;
+                saveStatus = "Error al guardar";
+                saveStatusColor = Color.RED;
+                System.err.println("Error saving beatmap " + file.getPath() + ": " + error.getMessage());
+            }
+        };
+    }
+    
+    // Crear información del beatmap basada en el ritmo seleccionado
+    private void applyDefaultMetadata() {
+        if (rhythmPath.contains("Doom Slayer")) {
+            beatmap.setTitle("The Only Thing They Fear Is You");
+            beatmap.setArtist("Mick Gordon");
+            beatmap.setDifficulty("Editor");
+        } else if (rhythmPath.contains("FF16")) {
+            beatmap.setTitle("Final Fantasy XVI");
+            beatmap.setArtist("Masayoshi Soken");
+            beatmap.setDifficulty("Editor");
+        } else if (rhythmPath.contains("Mashle")) {
+            beatmap.setTitle("Serious Steel");
+            beatmap.setArtist("Anime OST");
+            beatmap.setDifficulty("Editor");
+        } else {
+            beatmap.setTitle("Beatmap Editado");
+            beatmap.setArtist("Editor");
+            beatmap.setDifficulty("Normal");
         }
     }
     
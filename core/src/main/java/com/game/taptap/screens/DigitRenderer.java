@@ -0,0 +1,51 @@
+package com.game.taptap.screens;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+
+// Dibuja enteros no negativos con un caché de fuente por dígito, preparado una sola vez
+// para una escala y un color. Evita construir Strings (y GlyphLayouts) en cada frame.
+public class DigitRenderer {
+    private static final int MAX_DIGITS = 10;
+
+    private final BitmapFontCache[] digits = new BitmapFontCache[10];
+    private final float[] advances = new float[10];
+    private final int[] buffer = new int[MAX_DIGITS];
+
+    public DigitRenderer(BitmapFont font, float scale, Color color) {
+        float previousScaleX = font.getData().scaleX;
+        float previousScaleY = font.getData().scaleY;
+        font.getData().setScale(scale);
+        for (int digit = 0; digit < 10; digit++) {
+            char c = (char) ('0' + digit);
+            BitmapFontCache cache = font.newFontCache();
+            cache.setColor(color);
+            float width = cache.setText(String.valueOf(c), 0f, 0f).width;
+            BitmapFont.Glyph glyph = font.getData().getGlyph(c);
+            digits[digit] = cache;
+            advances[digit] = glyph != null ? glyph.xadvance * scale : width;
+        }
+        font.getData().setScale(previousScaleX, previousScaleY);
+    }
+
+    // Dibuja el valor con su esquina superior izquierda en (x, y); devuelve la x final
+    public float draw(Batch batch, int value, float x, float y) {
+        int count = 0;
+        int remaining = Math.max(0, value);
+        do {
+            buffer[count++] = remaining % 10;
+            remaining /= 10;
+        } while (remaining > 0 && count < MAX_DIGITS);
+
+        float penX = x;
+        for (int i = count - 1; i >= 0; i--) {
+            int digit = buffer[i];
+            digits[digit].setPosition(penX, y);
+            digits[digit].draw(batch);
+            penX += advances[digit];
+        }
+        return penX;
+    }
+}
@@ -0,0 +1,143 @@
+package com.game.taptap.screens;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+
+// HUD del gameplay: los textos fijos (etiquetas, teclas, cuenta regresiva, popups de juicio)
+// se preparan en BitmapFontCaches al construir o redimensionar, y la puntuación y el combo
+// se dibujan con DigitRenderer. En estado estable dibujar el HUD no reserva memoria.
+public class GameplayHud {
+    private static final String[] KEY_LABELS = {"A", "S", "D", "F"};
+    private static final int COUNTDOWN_SECONDS = 3;
+    private static final float MARGIN = 20f;
+    private static final float POPUP_X = 1600f;
+    private static final float POPUP_Y = 650f;
+
+    private final BitmapFont font;
+    private final BitmapFontCache[] keyLabels = new BitmapFontCache[KEY_LABELS.length];
+    private final BitmapFontCache[] countdownDigits = new BitmapFontCache[COUNTDOWN_SECONDS];
+    private final BitmapFontCache[] popups = new BitmapFontCache[JudgementPopup.values().length];
+    private BitmapFontCache scoreLabel;
+    private BitmapFontCache comboLabel;
+    private BitmapFontCache comboSuffix;
+    private BitmapFontCache songInfo;
+    private BitmapFontCache goLabel;
+    private BitmapFontCache replayLabel;
+    private DigitRenderer scoreDigits;
+    private DigitRenderer comboDigits;
+    private float scoreDigitsX;
+    private float comboDigitsX;
+    private float scoreY;
+    private float comboY;
+
+    public GameplayHud(BitmapFont font) {
+        this.font = font;
+    }
+
+    // Prepara todos los textos para el tamaño de pantalla y la posición de los carriles
+    public void build(String title, String artist, float width, float height,
+                      float laneStartX, float laneWidth, float hitLineY) {
+        scoreY = height - MARGIN;
+        comboY = height - 60f;
+
+        scoreLabel = newCache(Color.WHITE);
+        scoreDigitsX = MARGIN + setText(scoreLabel, "Puntuación: ", 0.8f, MARGIN, scoreY).width;
+        scoreDigits = new DigitRenderer(font, 0.8f, Color.WHITE);
+
+        comboLabel = newCache(Color.YELLOW);
+        comboDigitsX = MARGIN + setText(comboLabel, "Combo: ", 0.8f, MARGIN, comboY).width;
+        comboDigits = new DigitRenderer(font, 0.8f, Color.YELLOW);
+        comboSuffix = newCache(Color.YELLOW);
+        setText(comboSuffix, "x", 0.8f, 0f, comboY);
+
+        songInfo = newCache(Color.WHITE);
+        float songInfoWidth = setText(songInfo, title + " - " + artist, 0.6f, 0f, scoreY).width;
+        songInfo.setPosition((width - songInfoWidth) / 2f, 0f);
+
+        for (int i = 0; i < keyLabels.length; i++) {
+            keyLabels[i] = newCache(Color.RED);
+            float keyX = laneStartX + i * laneWidth + laneWidth / 2f;
+            GlyphLayout layout = setText(keyLabels[i], KEY_LABELS[i], 0.8f, 0f, 0f);
+            keyLabels[i].setPosition(keyX - layout.width / 2f, hitLineY + layout.height / 2f);
+        }
+
+        for (int i = 0; i < countdownDigits.length; i++) {
+            countdownDigits[i] = newCache(Color.RED);
+            centerText(countdownDigits[i], String.valueOf(i + 1), 3.0f, width, height);
+        }
+        goLabel = newCache(Color.GREEN);
+        centerText(goLabel, "¡ADELANTE!", 2.5f, width, height);
+        
+        replayLabel = newCache(Color.CYAN);
+        float replayWidth = setText(replayLabel, "REPETICIÓN", 0.6f, 0f, scoreY).width;
+        replayLabel.setPosition(width - MARGIN - replayWidth, 0f);
+
+        for (JudgementPopup popup : JudgementPopup.values()) {
+            BitmapFontCache cache = newCache(popup.getColor());
+            setText(cache, popup.getText(), popup.getScale(), POPUP_X, POPUP_Y);
+            popups[popup.ordinal()] = cache;
+        }
+    }
+
+    private BitmapFontCache newCache(Color color) {
+        BitmapFontCache cache = font.newFontCache();
+        cache.setColor(color);
+        return cache;
+    }
+
+    // Escribe el texto en el caché con la escala indicada y deja la fuente en escala 1
+    private GlyphLayout setText(BitmapFontCache cache, String text, float scale, float x, float y) {
+        font.getData().setScale(scale);
+        GlyphLayout layout = cache.setText(text, x, y);
+        font.getData().setScale(1.0f);
+        return layout;
+    }
+
+    private void centerText(BitmapFontCache cache, String text, float scale, float width, float height) {
+        GlyphLayout layout = setText(cache, text, scale, 0f, 0f);
+        cache.setPosition((width - layout.width) / 2f, (height + layout.height) / 2f);
+    }
+
+    public void drawKeyLabels(Batch batch) {
+        for (int i = 0; i < keyLabels.length; i++) {
+            keyLabels[i].draw(batch);
+        }
+    }
+
+    public void drawScore(Batch batch, int score, int combo) {
+        scoreLabel.draw(batch);
+        scoreDigits.draw(batch, score, scoreDigitsX, scoreY);
+
+        if (combo > 0) {
+            comboLabel.draw(batch);
+            float suffixX = comboDigits.draw(batch, combo, comboDigitsX, comboY);
+            comboSuffix.setPosition(suffixX, 0f);
+            comboSuffix.draw(batch);
+        }
+
+        songInfo.draw(batch);
+    }
+
+    // Cuenta regresiva antes de empezar; "¡ADELANTE!" durante el medio segundo siguiente
+    public void drawCountdown(Batch batch, float countdownTime) {
+        int countdown = (int) Math.ceil(countdownTime);
+        if (countdown > 0) {
+            countdownDigits[Math.min(countdown, COUNTDOWN_SECONDS) - 1].draw(batch);
+        } else if (countdownTime > -0.5f) {
+            goLabel.draw(batch);
+        }
+    }
+
+    public void drawReplayLabel(Batch batch) {
+        replayLabel.draw(batch);
+    }
+
+    public void drawPopup(Batch batch, JudgementPopup popup, float alpha) {
+        BitmapFontCache cache = popups[popup.ordinal()];
+        cache.setAlphas(alpha);
+        cache.draw(batch);
+    }
+}
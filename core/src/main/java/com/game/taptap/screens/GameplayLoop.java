@@ -0,0 +1,436 @@
+package com.game.taptap.screens;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.game.taptap.gameplay.CompiledChart;
+import com.game.taptap.gameplay.GameplaySimulation;
+import com.game.taptap.gameplay.JudgementEngine;
+import com.game.taptap.gameplay.JudgementThread;
+import com.game.taptap.gameplay.LaneInputQueue;
+import com.game.taptap.gameplay.LaneInputSource;
+import com.game.taptap.gameplay.Note;
+import com.game.taptap.gameplay.NoteLaneIndex;
+import com.game.taptap.gameplay.PlayState;
+import com.game.taptap.gameplay.ReplayRecorder;
+import com.game.taptap.gameplay.ScrollMap;
+import com.game.taptap.gameplay.SongClock;
+
+// Lógica por frame del gameplay: cuenta regresiva, reloj, entradas, eventos del hilo de
+// juicio, aparición y retiro de notas, y el dibujo de notas, efectos y HUD sobre un Batch.
+// GameplayScreen la usa con el teclado y la música; el benchmark headless la usa con el
+// bot de autoplay, el hilo de juicio en modo inline y un Batch que no dibuja, así que lo
+// que mide (velocidad y memoria por frame) es el mismo código que corre en el juego.
+public class GameplayLoop {
+    public static final int LANES = 4;
+    public static final float COUNTDOWN_SECONDS = 3f;
+    public static final Color[] LANE_COLORS = {
+        Color.RED, Color.BLUE, Color.GREEN, Color.YELLOW
+    };
+    // Distancia de aparición en unidades de scroll (segundos a velocidad 1)
+    private static final float LOOK_AHEAD_TIME = 3.0f;
+    private static final float FEEDBACK_DURATION = 1.0f;
+    private static final float EXPLOSION_DURATION = 0.2f;
+
+    // Acciones de teclado fuera del juego (las resuelve la pantalla)
+    public interface Controls {
+        void onExit();
+        void onTogglePause();
+        void onRetry();
+        void onWatchReplay();
+    }
+
+    private final SongClock songClock;
+    private final LaneInputQueue inputQueue;
+    private final boolean inlineJudgement;
+    private final NoteSprites noteSprites;
+    private GameplayHud hud;
+    private Music music;
+    private Sound hitSound;
+
+    private CompiledChart chart;
+    // La simulación corre en el hilo de juicio desde que termina la cuenta regresiva;
+    // el render usa su propia copia del estado de las notas, alimentada por los eventos
+    private GameplaySimulation simulation;
+    private JudgementThread judgementThread;
+    private final JudgementEngine.Listener judgementListener = createJudgementListener();
+    private final LaneInputQueue.Listener laneEventListener = this::onLaneEvent;
+    private PlayState playState;
+    private NoteLaneIndex laneIndex;
+    private ScrollMap scrollMap;
+    private float scrollPosition;
+
+    // Repeticiones: la partida en vivo se graba; con entradas guionadas (repetición o
+    // autoplay) se juega sola
+    private final ReplayRecorder replayRecorder = new ReplayRecorder();
+    private LaneInputSource scriptedInput;
+
+    private boolean gameStarted;
+    private double stepAccumulator;
+    // Tiempo de canción que se dibuja: entre el último tick simulado y el siguiente
+    private float renderTime;
+    private int frameInputEvents;
+    private boolean escapePressed;
+
+    private float laneWidth;
+    private float laneStartX;
+    private float hitLineY;
+    private float noteSpeed;
+    private float viewHeight;
+
+    private JudgementPopup feedbackPopup;
+    private float feedbackStart = Float.NEGATIVE_INFINITY;
+    private final float[] explosionStart = new float[LANES];
+
+    // inlineJudgement: el hilo de juicio corre dentro de update (sin hilo propio)
+    public GameplayLoop(SongClock songClock, LaneInputQueue inputQueue, NoteSprites noteSprites, boolean inlineJudgement) {
+        this.songClock = songClock;
+        this.inputQueue = inputQueue;
+        this.noteSprites = noteSprites;
+        this.inlineJudgement = inlineJudgement;
+        clearEffects();
+    }
+
+    public void setHud(GameplayHud hud) { this.hud = hud; }
+    public void setMusic(Music music) { this.music = music; }
+    public void setHitSound(Sound hitSound) { this.hitSound = hitSound; }
+
+    // Entradas guionadas para la próxima partida (null: teclado en vivo)
+    public void setScriptedInput(LaneInputSource scriptedInput) {
+        this.scriptedInput = scriptedInput;
+    }
+
+    public void useChart(CompiledChart compiled, ScrollMap scroll) {
+        if (judgementThread != null) {
+            judgementThread.stop();
+        }
+        chart = compiled;
+        scrollMap = scroll;
+        simulation = new GameplaySimulation(chart, COUNTDOWN_SECONDS);
+        judgementThread = new JudgementThread(simulation, songClock.getSharedAnchor(), inlineJudgement);
+        playState = new PlayState(chart);
+        laneIndex = new NoteLaneIndex(chart);
+    }
+
+    // Tamaño de los carriles para la pantalla; reconstruye los sprites y el HUD
+    public void layout(float width, float height, String title, String artist) {
+        float gameAreaWidth = width * 0.6f;
+        laneWidth = gameAreaWidth / (float) LANES;
+        laneStartX = (width - gameAreaWidth) / 2f;
+        hitLineY = height * 0.2f;
+        noteSpeed = height * 0.4f;
+        viewHeight = height;
+        noteSprites.build(laneWidth);
+        if (hud != null) {
+            hud.build(title, artist, width, height, laneStartX, laneWidth, hitLineY);
+        }
+    }
+
+    // Vuelve a la cuenta regresiva desde el principio del mapa (con el hilo de juicio detenido)
+    public void restart() {
+        judgementThread.stop();
+        simulation.reset();
+        judgementThread.refresh();
+        playState.reset();
+        laneIndex.reset();
+        songClock.reset(0f);
+        inputQueue.clear();
+        gameStarted = false;
+        stepAccumulator = 0.0;
+        renderTime = simulation.getTime();
+        clearEffects();
+    }
+
+    public void stop() {
+        judgementThread.stop();
+    }
+
+    public void update(float delta) {
+        update(delta, System.nanoTime());
+    }
+
+    // Avanza la simulación a paso fijo. En la cuenta regresiva los ticks se acumulan con el
+    // tiempo real; durante la canción se simula hasta el tick del reloj de audio.
+    public void update(float delta, long nowNanos) {
+        if (!gameStarted) {
+            inputQueue.clear();
+            simulation.clearInput();
+            stepAccumulator += delta;
+            while (stepAccumulator >= GameplaySimulation.TICK_SECONDS && !simulation.isCountdownFinished()) {
+                simulation.step();
+                stepAccumulator -= GameplaySimulation.TICK_SECONDS;
+            }
+            renderTime = simulation.getTime() + (float) stepAccumulator;
+            if (simulation.isCountdownFinished()) {
+                gameStarted = true;
+                if (music != null) {
+                    music.play();
+                }
+                songClock.start(0f, nowNanos);
+                renderTime = 0f;
+                replayRecorder.begin(chart);
+                simulation.setRecorder(scriptedInput == null ? replayRecorder : null);
+                judgementThread.start(scriptedInput);
+            }
+            return;
+        }
+
+        songClock.update(nowNanos);
+        float songTime = songClock.getTime();
+
+        if (scriptedInput != null) {
+            inputQueue.clear();
+        } else {
+            inputQueue.drain(laneEventListener);
+            // Los eventos se estampan antes de este frame; uno posterior puede caer en el
+            // tick actual, así que la marca queda un tick antes
+            judgementThread.publishInputWatermark(GameplaySimulation.toTick(songTime) - 1);
+        }
+        judgementThread.runOnce(nowNanos);
+        judgementThread.drainEvents(judgementListener);
+        renderTime = songTime;
+
+        laneIndex.spawnUntil(scrollMap.timeAtPosition(scrollMap.positionAt(renderTime) + LOOK_AHEAD_TIME));
+        for (int lane = 0; lane < LANES; lane++) {
+            laneIndex.retireBefore(lane, renderTime - chart.getJudgementWindows().getMissWindow());
+        }
+    }
+
+    // Teclas de la pantalla (salir, pausa, reintentar, ver repetición)
+    public void handleControls(Controls controls) {
+        if (Gdx.input.isKeyPressed(Input.Keys.ESCAPE) && !escapePressed) {
+            controls.onExit();
+            escapePressed = true;
+        } else if (!Gdx.input.isKeyPressed(Input.Keys.ESCAPE)) {
+            escapePressed = false;
+        }
+
+        if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+            controls.onTogglePause();
+        }
+
+        if (Gdx.input.isKeyJustPressed(Input.Keys.R)) {
+            controls.onRetry();
+        }
+
+        if (Gdx.input.isKeyJustPressed(Input.Keys.V)) {
+            controls.onWatchReplay();
+        }
+    }
+
+    // Receptores estáticos (van a la capa del campo de juego)
+    public void drawReceptors(Batch batch) {
+        for (int i = 0; i < LANES; i++) {
+            float circleX = laneStartX + i * laneWidth + laneWidth / 2f;
+            noteSprites.drawReceptor(batch, i, circleX, hitLineY);
+        }
+    }
+
+    // Parte dinámica de los receptores: estado presionado y explosiones
+    public void drawHitCircleEffects(Batch batch) {
+        for (int i = 0; i < LANES; i++) {
+            Color color = LANE_COLORS[i];
+
+            float circleX = laneStartX + i * laneWidth + laneWidth / 2f;
+            float circleY = hitLineY;
+            float baseRadius = laneWidth * 0.18f;
+
+            boolean laneDown = scriptedInput != null ? judgementThread.isLaneHolding(i) : inputQueue.isLaneDown(i);
+            if (laneDown) {
+                noteSprites.drawPressedReceptor(batch, i, circleX, circleY);
+            }
+
+            float explosionElapsed = renderTime - explosionStart[i];
+            if (explosionElapsed >= 0f && explosionElapsed < EXPLOSION_DURATION) {
+                float explosionProgress = explosionElapsed / EXPLOSION_DURATION;
+                float explosionRadius = baseRadius * (1f + explosionProgress * 1.2f);
+                float explosionAlpha = 1f - explosionProgress;
+
+                for (int ring = 0; ring < 2; ring++) {
+                    float ringRadius = explosionRadius * (0.9f + ring * 0.15f);
+                    float ringAlpha = explosionAlpha * (1f - ring * 0.3f);
+
+                    batch.setColor(color.r, color.g, color.b, ringAlpha * 0.4f);
+                    noteSprites.drawDisc(batch, circleX, circleY, ringRadius);
+                }
+
+                batch.setColor(1f, 1f, 1f, explosionAlpha * 0.5f);
+                noteSprites.drawDisc(batch, circleX, circleY, baseRadius * (1f + explosionProgress * 0.3f));
+                batch.setColor(Color.WHITE);
+            }
+        }
+    }
+
+    public void drawNotes(Batch batch) {
+        scrollPosition = scrollMap.positionAt(renderTime);
+        for (int lane = 0; lane < LANES; lane++) {
+            int end = laneIndex.getActiveEnd(lane);
+            for (int i = laneIndex.getActiveStart(lane); i < end; i++) {
+                renderNote(batch, i);
+            }
+        }
+    }
+
+    // Una nota HOLD sostenida deja la cabeza en la línea de golpe y el cuerpo se consume;
+    // una rota sigue bajando en gris y una completada ya no se dibuja
+    private void renderNote(Batch batch, int note) {
+        byte holdState = playState.getHoldState(note);
+        if (holdState == PlayState.HOLD_COMPLETED) return;
+        if (playState.isHit(note) && holdState == PlayState.HOLD_NONE) {
+            Note.HitType hitType = playState.getHitType(note);
+            if (hitType != Note.HitType.MISS) {
+                return;
+            }
+        }
+
+        float timeUntilHit = chart.time(note) - renderTime;
+        float noteY = hitLineY + (scrollMap.positionAt(chart.time(note)) - scrollPosition) * noteSpeed;
+        if (holdState == PlayState.HOLD_ACTIVE) {
+            noteY = Math.max(noteY, hitLineY);
+        }
+        float topY = noteY;
+        if (chart.isHold(note)) {
+            topY = hitLineY + (scrollMap.positionAt(chart.endTime(note)) - scrollPosition) * noteSpeed;
+        }
+
+        if (topY < -100 || noteY > viewHeight + 100) return;
+
+        int lane = chart.lane(note);
+        float noteX = laneStartX + lane * laneWidth + laneWidth / 2f;
+        float radius = laneWidth * 0.15f;
+
+        Color color = LANE_COLORS[lane];
+
+        if (holdState == PlayState.HOLD_BROKEN) {
+            batch.setColor(0.5f, 0.5f, 0.5f, 0.6f);
+            noteSprites.drawNote(batch, lane, noteX, noteY);
+            if (topY > noteY) {
+                noteSprites.drawHoldBody(batch, lane, noteX, noteY, topY);
+            }
+            batch.setColor(Color.WHITE);
+            return;
+        }
+
+        float distanceToHit = Math.abs(timeUntilHit);
+        float hitZone = chart.getJudgementWindows().getGoodWindow();
+        float proximityAlpha = holdState == PlayState.HOLD_ACTIVE ? 1f : 1f - Math.min(distanceToHit / hitZone, 1f);
+
+        if (proximityAlpha > 0) {
+            batch.setColor(color.r, color.g, color.b, proximityAlpha * 0.2f);
+            noteSprites.drawDisc(batch, noteX, noteY, radius * (1.3f + proximityAlpha * 0.3f));
+            batch.setColor(Color.WHITE);
+        }
+
+        noteSprites.drawNote(batch, lane, noteX, noteY);
+
+        if (topY > noteY) {
+            noteSprites.drawHoldBody(batch, lane, noteX, noteY, topY);
+        }
+    }
+
+    // Teclas de los carriles, puntuación, combo, cuenta regresiva y popup de juicio
+    public void drawHud(Batch batch) {
+        hud.drawKeyLabels(batch);
+        hud.drawScore(batch, judgementThread.getScore(), judgementThread.getCombo());
+        if (scriptedInput != null) {
+            hud.drawReplayLabel(batch);
+        }
+
+        if (!gameStarted) {
+            hud.drawCountdown(batch, -renderTime);
+        }
+
+        float feedbackElapsed = renderTime - feedbackStart;
+        if (feedbackPopup != null && feedbackElapsed >= 0f && feedbackElapsed < FEEDBACK_DURATION) {
+            hud.drawPopup(batch, feedbackPopup, 1f - feedbackElapsed / FEEDBACK_DURATION);
+        }
+    }
+
+    private void showFeedback(JudgementPopup popup) {
+        feedbackPopup = popup;
+        feedbackStart = eventTime();
+    }
+
+    private void triggerExplosion(int lane) {
+        explosionStart[lane] = eventTime();
+    }
+
+    // Tiempo de simulación del evento de juicio que se está procesando
+    private float eventTime() {
+        return GameplaySimulation.timeOf(judgementThread.getEventTick());
+    }
+
+    private JudgementEngine.Listener createJudgementListener() {
+        return new JudgementEngine.Listener() {
+            @Override
+            public void onHit(int lane, int note, Note.HitType hitType, float offset) {
+                playState.setHit(note, hitType);
+                if (chart.isHold(note) && hitType != Note.HitType.MISS) {
+                    playState.setHoldState(note, PlayState.HOLD_ACTIVE);
+                }
+                showFeedback(JudgementPopup.of(hitType));
+                if (hitType != Note.HitType.MISS) {
+                    triggerExplosion(lane);
+                }
+                if (hitSound != null) {
+                    hitSound.play();
+                }
+            }
+
+            @Override
+            public void onMiss(int lane, int note) {
+                playState.setHit(note, Note.HitType.MISS);
+                showFeedback(JudgementPopup.MISS);
+            }
+
+            @Override
+            public void onHoldBroken(int lane, int note) {
+                playState.setHoldState(note, PlayState.HOLD_BROKEN);
+                showFeedback(JudgementPopup.MISS);
+            }
+
+            @Override
+            public void onHoldCompleted(int lane, int note) {
+                playState.setHoldState(note, PlayState.HOLD_COMPLETED);
+                triggerExplosion(lane);
+            }
+        };
+    }
+
+    // Los efectos guardan el tiempo de simulación en que empezaron
+    private void clearEffects() {
+        feedbackPopup = null;
+        feedbackStart = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < LANES; i++) {
+            explosionStart[i] = Float.NEGATIVE_INFINITY;
+        }
+    }
+
+    // Entrada en vivo: se convierte a tick de canción y se pasa al hilo de juicio
+    private void onLaneEvent(int lane, boolean pressed, long eventNanos) {
+        frameInputEvents++;
+        judgementThread.offerInput(lane, pressed, GameplaySimulation.toTick(songClock.timeAt(eventNanos)));
+    }
+
+    // Entradas en vivo procesadas desde la última llamada (para el detector de tirones)
+    public int takeInputEvents() {
+        int events = frameInputEvents;
+        frameInputEvents = 0;
+        return events;
+    }
+
+    public CompiledChart getChart() { return chart; }
+    public GameplaySimulation getSimulation() { return simulation; }
+    public JudgementThread getJudgementThread() { return judgementThread; }
+    public PlayState getPlayState() { return playState; }
+    public ReplayRecorder getReplayRecorder() { return replayRecorder; }
+    public boolean isStarted() { return gameStarted; }
+    public float getRenderTime() { return renderTime; }
+    public int getActiveNoteCount() { return laneIndex.getActiveCount(); }
+    public float getLaneWidth() { return laneWidth; }
+    public float getLaneStartX() { return laneStartX; }
+    public float getHitLineY() { return hitLineY; }
+}
@@ -1,21 +1,33 @@
 package com.game.taptap.screens;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
-import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.game.taptap.TapTapGame;
+import com.game.taptap.debug.AllocationMeter;
+import com.game.taptap.debug.FlightEvents;
+import com.game.taptap.debug.FrameProfiler;
+import com.game.taptap.debug.HitchDetector;
 import com.game.taptap.gameplay.Beatmap;
+import com.game.taptap.gameplay.BeatmapCache;
+import com.game.taptap.gameplay.CompiledChart;
+import com.game.taptap.gameplay.JudgementEngine;
+import com.game.taptap.gameplay.JudgementWindows;
+import com.game.taptap.gameplay.LaneInputQueue;
 import com.game.taptap.gameplay.Note;
-
-import java.util.List;
+import com.game.taptap.gameplay.ReplayPlayer;
+import com.game.taptap.gameplay.ReplayRecorder;
+import com.game.taptap.gameplay.ScrollMap;
+import com.game.taptap.gameplay.SongClock;
 
 public class GameplayScreen implements Screen {
     
@@ -23,64 +35,43 @@ public class GameplayScreen implements Screen {
     private String rhythmPath;
     private Beatmap beatmap;
     private Music gameMusic;
-    private Sound hitSound;
     private BitmapFont font;
+    private GameplayHud hud;
     private ShapeRenderer shapeRenderer;
+    private NoteSprites noteSprites;
+    private FrameBuffer playfieldBuffer;
     private Texture backgroundImage;
     
-    private boolean gameStarted;
     private boolean gamePaused;
-    private float gameTime;
-    private int score;
-    private int combo;
-    private int maxCombo;
-    private float countdownTime;
-    
-    private Array<Note> activeNotes;
-    private static final int LANES = 4;
-    private static final float LOOK_AHEAD_TIME = 3.0f;
-    private static final float PERFECT_WINDOW = 0.05f;
-    private static final float GOOD_WINDOW = 0.12f;
-    private static final float MISS_WINDOW = 0.18f;
-    private static final float VISUAL_HIT_ZONE = 0.15f;
-    
-    private float laneWidth;
-    private float laneStartX;
-    private float hitLineY;
-    private float noteSpeed;
-    private static final Color[] LANE_COLORS = {
-        Color.RED, Color.BLUE, Color.GREEN, Color.YELLOW
-    };
-    
-    private boolean[] lanePressed;
-    private boolean[] laneHolding;
-    private boolean escapePressed;
-    
-    private String lastHitFeedback = "";
-    private float feedbackTime = 0f;
-    private static final float FEEDBACK_DURATION = 1.0f;
-    
-    private boolean[] explosionActive = new boolean[LANES];
-    private float[] explosionTime = new float[LANES];
-    private static final float EXPLOSION_DURATION = 0.2f;
+    private SongClock songClock;
+    
+    // Actualización y dibujo por frame (compartidos con el benchmark headless)
+    private GameplayLoop loop;
+    private final GameplayLoop.Controls controls = createControls();
+    private LaneInputQueue inputQueue;
+    
+    // Repeticiones: con una repetición cargada la partida se juega sola
+    private ReplayPlayer replayPlayer;
+    
+    // Vigilante de tirones: los frames lentos se vuelcan a hitches/ con el contexto previo.
+    // Vive mientras la pantalla está visible (su hilo escritor se detiene en hide)
+    private HitchDetector hitchDetector;
+    private static final float HITCH_BUDGET = 0.05f;
+    private static final float HITCH_WINDOW = 5f;
+    // Memoria reservada por frame durante la canción (solo con -Dtaptap.debug=true)
+    private final AllocationMeter renderAllocations = AllocationMeter.DEBUG ? new AllocationMeter(ALLOCATION_WARMUP_FRAMES) : null;
+    private static final int ALLOCATION_WARMUP_FRAMES = 120;
     
     public GameplayScreen(TapTapGame game, String rhythmPath) {
         this.game = game;
         this.rhythmPath = rhythmPath;
         this.beatmap = new Beatmap();
-        this.activeNotes = new Array<>();
-        this.lanePressed = new boolean[LANES];
-        this.laneHolding = new boolean[LANES];
-        this.explosionActive = new boolean[LANES];
-        this.explosionTime = new float[LANES];
-        this.gameStarted = false;
+        this.songClock = new SongClock();
+        this.inputQueue = new LaneInputQueue();
+        this.noteSprites = new NoteSprites(GameplayLoop.LANE_COLORS);
+        this.loop = new GameplayLoop(songClock, inputQueue, noteSprites, false);
+        useChart(CompiledChart.compile(beatmap, GameplayLoop.LANES));
         this.gamePaused = false;
-        this.gameTime = 0f;
-        this.countdownTime = 3f;
-        this.score = 0;
-        this.combo = 0;
-        this.maxCombo = 0;
-        this.escapePressed = false;
         this.shapeRenderer = new ShapeRenderer();
     }
     
@@ -88,64 +79,50 @@ public class GameplayScreen implements Screen {
     public void show() {
         loadBeatmap();
         font = game.font;
+        if (hud == null) {
+            hud = new GameplayHud(font);
+            loop.setHud(hud);
+        }
         if (game.assetManager.isLoaded(TapTapGame.CURSOR_SOUND)) {
-            hitSound = game.assetManager.get(TapTapGame.CURSOR_SOUND, Sound.class);
+            loop.setHitSound(game.assetManager.get(TapTapGame.CURSOR_SOUND, Sound.class));
         }
-        float gameAreaWidth = Gdx.graphics.getWidth() * 0.6f;
-        laneWidth = gameAreaWidth / (float) LANES;
-        laneStartX = (Gdx.graphics.getWidth() - gameAreaWidth) / 2f;
-        hitLineY = Gdx.graphics.getHeight() * 0.2f;
-        noteSpeed = Gdx.graphics.getHeight() * 0.4f;
+        layout(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
         loadGameMusic();
         loadBackgroundImage();
-        gameStarted = false;
-        gameTime = 0f;
-        countdownTime = 3f;
+        songClock.setMusic(gameMusic);
+        loop.setMusic(gameMusic);
+        gamePaused = false;
+        loop.setScriptedInput(replayPlayer);
+        loop.restart();
+        Gdx.input.setInputProcessor(inputQueue);
+        if (hitchDetector == null) {
+            hitchDetector = new HitchDetector(HITCH_BUDGET, HITCH_WINDOW);
+        }
     }
     
     private void loadBeatmap() {
+        String beatmapPath = rhythmPath + "/beatmap.json";
+        Object parseEvent = FlightEvents.beginBeatmapParse();
         try {
-            String beatmapPath = rhythmPath + "/beatmap.json";
-            String jsonString = Gdx.files.internal(beatmapPath).readString();
-            
-            com.badlogic.gdx.utils.JsonValue root = new com.badlogic.gdx.utils.JsonReader().parse(jsonString);
-            
             beatmap = new Beatmap();
-            beatmap.setTitle(root.getString("title", "Unknown"));
-            beatmap.setArtist(root.getString("artist", "Unknown"));
-            beatmap.setDifficulty(root.getString("difficulty", "Normal"));
-            beatmap.setAudioLeadIn(root.getFloat("audioLeadIn", 0f));
-            beatmap.setPreviewTime(root.getFloat("previewTime", 0f));
-            
-            com.badlogic.gdx.utils.JsonValue notesArray = root.get("notes");
-            if (notesArray != null) {
-                for (com.badlogic.gdx.utils.JsonValue noteValue : notesArray) {
-                    float time = noteValue.getFloat("time");
-                    int lane = noteValue.getInt("lane");
-                    String typeStr = noteValue.getString("type");
-                    Note.NoteType type = Note.NoteType.valueOf(typeStr);
-                    
-                    Note note;
-                    if (type == Note.NoteType.HOLD && noteValue.has("endTime")) {
-                        float endTime = noteValue.getFloat("endTime");
-                        note = new Note(time, lane, type, endTime);
-                    } else {
-                        note = new Note(time, lane, type);
-                    }
-                    
-                    beatmap.addNote(note);
-                }
-            }
+            useChart(BeatmapCache.loadChart(Gdx.files.internal(beatmapPath), GameplayLoop.LANES, beatmap));
             
             System.out.println("Loaded beatmap: " + beatmap.getTitle() + " by " + beatmap.getArtist());
-            System.out.println("Notes loaded: " + beatmap.getTotalNotes());
+            System.out.println("Notes loaded: " + loop.getChart().getNoteCount());
+            FlightEvents.endBeatmapParse(parseEvent, beatmapPath, loop.getChart().getNoteCount(), true);
             
         } catch (Exception e) {
             System.err.println("Error loading beatmap: " + e.getMessage());
             e.printStackTrace();
+            FlightEvents.endBeatmapParse(parseEvent, beatmapPath, 0, false);
             beatmap = new Beatmap();
+            useChart(CompiledChart.compile(beatmap, GameplayLoop.LANES));
         }
     }
+    
+    private void useChart(CompiledChart compiled) {
+        loop.useChart(compiled, ScrollMap.build(beatmap.getTimingPoints()));
+    }
 
     private void loadGameMusic() {
         try {
@@ -201,27 +178,87 @@ public class GameplayScreen implements Screen {
     public void render(float delta) {
         ScreenUtils.clear(0.1f, 0.1f, 0.1f, 1f);
         
+        FrameProfiler profiler = game.profiler;
+        profiler.begin(FrameProfiler.Phase.UPDATE);
         if (!gamePaused) {
-            update(delta);
+            loop.update(delta);
+        } else {
+            inputQueue.clear();
         }
+        profiler.end(FrameProfiler.Phase.UPDATE);
         
-        handleInput();
+        profiler.begin(FrameProfiler.Phase.CONTROLS);
+        loop.handleControls(controls);
+        profiler.end(FrameProfiler.Phase.CONTROLS);
+        // ESC cambió de pantalla: hide() ya liberó el detector de tirones y la música
+        if (game.getScreen() != this) return;
         
+        profiler.begin(FrameProfiler.Phase.PLAYFIELD);
+        game.batch.begin();
         if (backgroundImage != null) {
-            game.batch.begin();
             game.batch.setColor(1f, 1f, 1f, 0.3f);
             game.batch.draw(backgroundImage, 0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
             game.batch.setColor(1f, 1f, 1f, 1f);
-            game.batch.end();
         }
         
+        drawPlayfieldLayer();
+        loop.drawHitCircleEffects(game.batch);
+        profiler.end(FrameProfiler.Phase.PLAYFIELD);
+        
+        profiler.begin(FrameProfiler.Phase.NOTES);
+        loop.drawNotes(game.batch);
+        profiler.end(FrameProfiler.Phase.NOTES);
+        
+        profiler.begin(FrameProfiler.Phase.HUD);
+        loop.drawHud(game.batch);
+        game.batch.end();
+        profiler.end(FrameProfiler.Phase.HUD);
+        
+        if (hitchDetector != null) {
+            hitchDetector.record(loop.getRenderTime(), loop.getActiveNoteCount(), loop.takeInputEvents());
+        }
+        if (renderAllocations != null && loop.isStarted() && !gamePaused) {
+            renderAllocations.frame();
+        }
+    }
+    
+    // Capa estática del campo de juego (carriles, línea de golpe y receptores) dibujada una sola
+    // vez en un FrameBuffer; solo se reconstruye al cambiar el tamaño de la ventana.
+    // El buffer guarda alfa premultiplicado para componerlo después con un único quad.
+    private void rebuildPlayfieldLayer() {
+        int width = Gdx.graphics.getWidth();
+        int height = Gdx.graphics.getHeight();
+        if (width <= 0 || height <= 0) return;
+        
+        if (playfieldBuffer == null || playfieldBuffer.getWidth() != width || playfieldBuffer.getHeight() != height) {
+            if (playfieldBuffer != null) {
+                playfieldBuffer.dispose();
+            }
+            playfieldBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, width, height, false);
+        }
+        
+        playfieldBuffer.begin();
+        Gdx.gl.glClearColor(0f, 0f, 0f, 0f);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFuncSeparate(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA, GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
         drawAllShapes();
         
         game.batch.begin();
-        drawKeyIndicators();
-        drawUI();
-        drawFeedback();
+        game.batch.setBlendFunctionSeparate(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA, GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        loop.drawReceptors(game.batch);
         game.batch.end();
+        game.batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        playfieldBuffer.end();
+    }
+    
+    private void drawPlayfieldLayer() {
+        if (playfieldBuffer == null) return;
+        Texture layer = playfieldBuffer.getColorBufferTexture();
+        game.batch.setBlendFunction(GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        game.batch.draw(layer, 0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight(),
+            0, 0, layer.getWidth(), layer.getHeight(), false, true);
+        game.batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
     }
     
     private void drawAllShapes() {
@@ -232,20 +269,18 @@ public class GameplayScreen implements Screen {
         
         drawHitLineWithShape();
         
-        drawHitCirclesWithShape();
-        
-        drawNotesWithShape();
-        
         shapeRenderer.end();
     }
     
     private void drawLanesWithShape() {
+        float laneStartX = loop.getLaneStartX();
+        float laneWidth = loop.getLaneWidth();
         shapeRenderer.setColor(0.05f, 0.05f, 0.1f, 0.8f);
-        float gameAreaWidth = laneWidth * LANES;
+        float gameAreaWidth = laneWidth * GameplayLoop.LANES;
         shapeRenderer.rect(laneStartX, 0, gameAreaWidth, Gdx.graphics.getHeight());
         
         shapeRenderer.setColor(0.4f, 0.4f, 0.5f, 0.8f);
-        for (int i = 1; i < LANES; i++) {
+        for (int i = 1; i < GameplayLoop.LANES; i++) {
             float x = laneStartX + i * laneWidth;
             shapeRenderer.rect(x - 1, 0, 2, Gdx.graphics.getHeight());
         }
@@ -256,7 +291,9 @@ public class GameplayScreen implements Screen {
     }
     
     private void drawHitLineWithShape() {
-        float gameAreaWidth = laneWidth * LANES;
+        float laneStartX = loop.getLaneStartX();
+        float hitLineY = loop.getHitLineY();
+        float gameAreaWidth = loop.getLaneWidth() * GameplayLoop.LANES;
         
         shapeRenderer.setColor(1f, 1f, 0f, 0.3f);
         shapeRenderer.rect(laneStartX, hitLineY - 6, gameAreaWidth, 12);
@@ -268,402 +305,100 @@ public class GameplayScreen implements Screen {
         shapeRenderer.rect(laneStartX, hitLineY - 1, gameAreaWidth, 2);
     }
     
-    private void drawHitCirclesWithShape() {
-        for (int i = 0; i < LANES; i++) {
-            Color color = LANE_COLORS[i];
-            
-            float circleX = laneStartX + i * laneWidth + laneWidth / 2f;
-            float circleY = hitLineY;
-            float baseRadius = laneWidth * 0.18f;
-            
-            shapeRenderer.setColor(color.r, color.g, color.b, 0.05f);
-            shapeRenderer.circle(circleX, circleY, baseRadius * 2.0f);
-            
-            shapeRenderer.setColor(color.r, color.g, color.b, 0.1f);
-            shapeRenderer.circle(circleX, circleY, baseRadius * 1.5f);
-            
-            shapeRenderer.setColor(color.r, color.g, color.b, 0.15f);
-            shapeRenderer.circle(circleX, circleY, baseRadius * 1.2f);
-            
-            shapeRenderer.setColor(color.r, color.g, color.b, 1f);
-            shapeRenderer.circle(circleX, circleY, baseRadius + 0.5f);
-            
-            shapeRenderer.setColor(1f, 1f, 1f, 1f);
-            shapeRenderer.circle(circleX, circleY, baseRadius);
-            
-            if (lanePressed[i]) {
-                shapeRenderer.setColor(color.r, color.g, color.b, 0.6f);
-                shapeRenderer.circle(circleX, circleY, baseRadius * 1.3f);
-                
-                shapeRenderer.setColor(0.9f, 0.9f, 0.9f, 1f);
-                shapeRenderer.circle(circleX, circleY, baseRadius);
-            }
-            
-            shapeRenderer.setColor(0.8f, 0.8f, 0.8f, 0.4f);
-            shapeRenderer.circle(circleX, circleY, baseRadius * 0.7f);
-            
-            if (explosionActive[i]) {
-                float explosionProgress = 1f - (explosionTime[i] / EXPLOSION_DURATION);
-                float explosionRadius = baseRadius * (1f + explosionProgress * 1.2f);
-                float explosionAlpha = 1f - explosionProgress;
-                
-                for (int ring = 0; ring < 2; ring++) {
-                    float ringRadius = explosionRadius * (0.9f + ring * 0.15f);
-                    float ringAlpha = explosionAlpha * (1f - ring * 0.3f);
-                    
-                    shapeRenderer.setColor(color.r, color.g, color.b, ringAlpha * 0.4f);
-                    shapeRenderer.circle(circleX, circleY, ringRadius);
-                }
-                
-                shapeRenderer.setColor(1f, 1f, 1f, explosionAlpha * 0.5f);
-                shapeRenderer.circle(circleX, circleY, baseRadius * (1f + explosionProgress * 0.3f));
-            }
-        }
-    }
-    
-    private void drawNotesWithShape() {
-        for (Note note : activeNotes) {
-            renderNote(note);
-        }
-    }
-    
-    private void drawKeyIndicators() {
-        String[] keys = {"A", "S", "D", "F"};
-        font.getData().setScale(0.8f);
-        
-        for (int i = 0; i < LANES; i++) {
-            float keyX = laneStartX + i * laneWidth + laneWidth / 2f;
-            float keyY = hitLineY;
-            
-            font.setColor(Color.RED);
-            
-            com.badlogic.gdx.graphics.g2d.GlyphLayout layout = new com.badlogic.gdx.graphics.g2d.GlyphLayout();
-            layout.setText(font, keys[i]);
-            
-            font.draw(game.batch, keys[i], 
-                keyX - layout.width / 2f, 
-                keyY + layout.height / 2f);
-        }
-        
-        font.getData().setScale(1.0f);
-        font.setColor(Color.WHITE);
-    }
-    
-    private void update(float delta) {
-        gameTime += delta;
-        
-        if (!gameStarted) {
-            countdownTime -= delta;
-            if (countdownTime <= 0) {
-                gameStarted = true;
-                gameTime = 0f;
-                if (gameMusic != null) {
-                    gameMusic.play();
-                }
-            }
-            return;
-        }
-        
-        if (feedbackTime > 0) {
-            feedbackTime -= delta;
-        }
-        
-        for (int i = 0; i < LANES; i++) {
-            if (explosionActive[i]) {
-                explosionTime[i] -= delta;
-                if (explosionTime[i] <= 0) {
-                    explosionActive[i] = false;
-                }
-            }
-        }
-        
-        List<Note> notesToActivate = beatmap.getActiveNotes(gameTime, LOOK_AHEAD_TIME);
-        
-        for (Note note : notesToActivate) {
-            if (!activeNotes.contains(note, true)) {
-                activeNotes.add(note);
-            }
-        }
-        
-        for (int i = activeNotes.size - 1; i >= 0; i--) {
-            Note note = activeNotes.get(i);
-            if (note.getTime() < gameTime - MISS_WINDOW) {
-                if (!note.isHit()) {
-                    combo = 0;
-                    showFeedback("FALLO", Color.RED);
-                }
-                activeNotes.removeIndex(i);
-            }
-        }
+    // Reinicia la partida reutilizando el mapa compilado, la música y las texturas ya cargadas:
+    // solo se limpia el estado de la partida y se vuelve a la cuenta regresiva
+    private void retry() {
+        loop.stop();
+        saveReplay();
+        replayPlayer = null;
+        restart();
     }
     
-    private void renderNote(Note note) {
-        if (note.isHit() && (note.getHitType() == Note.HitType.PERFECT || note.getHitType() == Note.HitType.GREAT)) {
+    // Reinicia mostrando la última repetición guardada de esta canción
+    private void watchReplay() {
+        FileHandle file = getReplayFile();
+        if (!file.exists()) {
+            System.out.println("No replay found: " + file.path());
             return;
         }
-        
-        float timeUntilHit = note.getTime() - gameTime;
-        float noteY = hitLineY + (timeUntilHit * noteSpeed);
-        
-        if (noteY < -100 || noteY > Gdx.graphics.getHeight() + 100) return;
-        
-        float noteX = laneStartX + note.getLane() * laneWidth + laneWidth / 2f;
-        float radius = laneWidth * 0.15f;
-        
-        Color color = LANE_COLORS[note.getLane()];
-        
-        float distanceToHit = Math.abs(timeUntilHit);
-        float proximityAlpha = 1f - Math.min(distanceToHit / VISUAL_HIT_ZONE, 1f);
-        
-        if (proximityAlpha > 0) {
-            shapeRenderer.setColor(color.r, color.g, color.b, proximityAlpha * 0.2f);
-            shapeRenderer.circle(noteX, noteY, radius * (1.3f + proximityAlpha * 0.3f));
-        }
-        
-        shapeRenderer.setColor(1f, 1f, 1f, 1f);
-        shapeRenderer.circle(noteX, noteY, radius + 2);
-        
-        shapeRenderer.setColor(color.r, color.g, color.b, 1f);
-        shapeRenderer.circle(noteX, noteY, radius);
-        
-        shapeRenderer.setColor(1f, 1f, 1f, 0.4f);
-        shapeRenderer.circle(noteX, noteY - radius * 0.2f, radius * 0.3f);
-        
-        if (note.getType() == Note.NoteType.HOLD) {
-            float holdEndY = hitLineY + ((note.getEndTime() - gameTime) * noteSpeed);
-            if (holdEndY > noteY) {
-                float trailWidth = radius * 1.2f;
-                
-                shapeRenderer.setColor(1f, 1f, 1f, 0.9f);
-                shapeRenderer.rect(noteX - trailWidth/2f - 2, noteY, 2, holdEndY - noteY);
-                shapeRenderer.rect(noteX + trailWidth/2f, noteY, 2, holdEndY - noteY);
-                
-                shapeRenderer.setColor(color.r, color.g, color.b, 0.8f);
-                shapeRenderer.rect(noteX - trailWidth/2f, noteY, trailWidth, holdEndY - noteY);
-                
-                shapeRenderer.setColor(1f, 1f, 1f, 0.2f);
-                shapeRenderer.rect(noteX - 1, noteY, 2, holdEndY - noteY);
-            }
-        }
-    }
-    
-    private void drawUI() {
-        font.setColor(Color.WHITE);
-        font.getData().setScale(0.8f);
-        font.draw(game.batch, "Puntuación: " + score, 20, Gdx.graphics.getHeight() - 20);
-        
-        if (combo > 0) {
-            font.setColor(Color.YELLOW);
-            font.draw(game.batch, "Combo: " + combo + "x", 20, Gdx.graphics.getHeight() - 60);
-        }
-        
-        font.setColor(Color.WHITE);
-        font.getData().setScale(0.6f);
-        String songInfo = beatmap.getTitle() + " - " + beatmap.getArtist();
-        float songInfoWidth = font.getRegion().getRegionWidth() * songInfo.length() * 0.6f;
-        font.draw(game.batch, songInfo, 
-            (Gdx.graphics.getWidth() - songInfoWidth) / 2f, 
-            Gdx.graphics.getHeight() - 20);
-        
-        if (!gameStarted) {
-            int countdown = (int) Math.ceil(countdownTime);
-            if (countdown > 0) {
-                font.setColor(Color.RED);
-                font.getData().setScale(3.0f);
-                String countdownText = String.valueOf(countdown);
-                
-                com.badlogic.gdx.graphics.g2d.GlyphLayout layout = new com.badlogic.gdx.graphics.g2d.GlyphLayout();
-                layout.setText(font, countdownText);
-                
-                font.draw(game.batch, countdownText, 
-                    (Gdx.graphics.getWidth() - layout.width) / 2f, 
-                    (Gdx.graphics.getHeight() + layout.height) / 2f);
-            } else if (countdownTime > -0.5f) {
-                font.setColor(Color.GREEN);
-                font.getData().setScale(2.5f);
-                String goText = "¡ADELANTE!";
-                
-                com.badlogic.gdx.graphics.g2d.GlyphLayout layout = new com.badlogic.gdx.graphics.g2d.GlyphLayout();
-                layout.setText(font, goText);
-                
-                font.draw(game.batch, goText, 
-                    (Gdx.graphics.getWidth() - layout.width) / 2f, 
-                    (Gdx.graphics.getHeight() + layout.height) / 2f);
+        try {
+            ReplayPlayer player = ReplayPlayer.load(file);
+            if (!player.matches(loop.getChart())) {
+                System.err.println("Replay was recorded on a different beatmap: " + file.path());
+                return;
             }
+            loop.stop();
+            saveReplay();
+            replayPlayer = player;
+            restart();
+        } catch (Exception e) {
+            System.err.println("Error loading replay: " + e.getMessage());
         }
-        
-        font.getData().setScale(1.0f);
-        font.setColor(Color.WHITE);
     }
     
-    private void drawFeedback() {
-        if (feedbackTime > 0 && !lastHitFeedback.isEmpty()) {
-            float fadeAlpha = feedbackTime / FEEDBACK_DURATION;
-            
-            float scale = 1.0f;
-            if (lastHitFeedback.equals("PERFECTO")) {
-                font.setColor(1f, 1f, 0f, fadeAlpha);
-                scale = 1.2f;
-            } else if (lastHitFeedback.equals("BIEN")) {
-                font.setColor(0f, 1f, 0f, fadeAlpha);
-                scale = 1.2f;
-            } else if (lastHitFeedback.contains("HOLD")) {
-                font.setColor(0f, 1f, 1f, fadeAlpha);
-                scale = 1.2f;
-            } else {
-                font.setColor(1f, 0f, 0f, fadeAlpha);
-                scale = 1.0f;
-            }
-            
-            font.getData().setScale(scale);
-            
-            com.badlogic.gdx.graphics.g2d.GlyphLayout layout = new com.badlogic.gdx.graphics.g2d.GlyphLayout();
-            layout.setText(font, lastHitFeedback);
-            
-            float feedbackX = 1600f;
-            float feedbackY = 650f;
-            
-            font.draw(game.batch, lastHitFeedback, feedbackX, feedbackY);
-            
-            font.getData().setScale(1.0f);
-            font.setColor(Color.WHITE);
+    // Solo con el hilo de juicio detenido (la grabación la escribe ese hilo)
+    private void saveReplay() {
+        ReplayRecorder replayRecorder = loop.getReplayRecorder();
+        if (replayPlayer != null || replayRecorder.getEventCount() == 0) return;
+        try {
+            FileHandle file = getReplayFile();
+            replayRecorder.save(file);
+            System.out.println("Saved replay: " + file.path() + " (" + replayRecorder.getEventCount() + " events)");
+        } catch (Exception e) {
+            System.err.println("Error saving replay: " + e.getMessage());
         }
+        replayRecorder.begin(loop.getChart());
     }
     
-    private void showFeedback(String text, Color color) {
-        lastHitFeedback = text;
-        feedbackTime = FEEDBACK_DURATION;
+    private FileHandle getReplayFile() {
+        return Gdx.files.local("replays/" + Gdx.files.internal(rhythmPath).name() + ".ttr");
     }
     
-    private void triggerExplosion(int lane) {
-        explosionActive[lane] = true;
-        explosionTime[lane] = EXPLOSION_DURATION;
-    }
-    
-    private void handleInput() {
-        boolean[] currentPressed = new boolean[LANES];
-        currentPressed[0] = Gdx.input.isKeyPressed(Input.Keys.A);
-        currentPressed[1] = Gdx.input.isKeyPressed(Input.Keys.S);
-        currentPressed[2] = Gdx.input.isKeyPressed(Input.Keys.D);
-        currentPressed[3] = Gdx.input.isKeyPressed(Input.Keys.F);
-        
-        for (int lane = 0; lane < LANES; lane++) {
-            if (currentPressed[lane] && !lanePressed[lane]) {
-                hitLane(lane);
-            }
-            
-            if (!currentPressed[lane] && lanePressed[lane]) {
-                releaseHoldNote(lane);
-            }
-            
-            laneHolding[lane] = currentPressed[lane];
-            lanePressed[lane] = currentPressed[lane];
+    private void restart() {
+        loop.stop();
+        logResults();
+        logAllocations();
+        if (replayPlayer != null) {
+            replayPlayer.rewind();
         }
-        
-        updateHoldNotes();
-        
-        if (Gdx.input.isKeyPressed(Input.Keys.ESCAPE) && !escapePressed) {
-            returnToMenu();
-            escapePressed = true;
-        } else if (!Gdx.input.isKeyPressed(Input.Keys.ESCAPE)) {
-            escapePressed = false;
+        if (gameMusic != null) {
+            gameMusic.pause();
+            gameMusic.setPosition(0f);
         }
-        
-        if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
-            togglePause();
+        loop.setScriptedInput(replayPlayer);
+        loop.restart();
+        gamePaused = false;
+        if (hitchDetector != null) {
+            hitchDetector.reset();
         }
     }
     
-    private void hitLane(int lane) {
-        Note hitNote = findClosestHittableNote(lane);
-        
-        if (hitNote != null && !hitNote.isHit()) {
-            float timingDifference = Math.abs(gameTime - hitNote.getTime());
-            
-            String feedback;
-            int points;
-            
-            if (timingDifference <= PERFECT_WINDOW) {
-                feedback = "PERFECTO";
-                points = 3;
-                combo++;
-                hitNote.setHitType(Note.HitType.PERFECT);
-                showFeedback(feedback, Color.YELLOW);
-                triggerExplosion(lane);
-            } else if (timingDifference <= GOOD_WINDOW) {
-                feedback = "BIEN";
-                points = 1;
-                combo++;
-                hitNote.setHitType(Note.HitType.GREAT);
-                showFeedback(feedback, Color.GREEN);
-                triggerExplosion(lane);
-            } else if (timingDifference <= MISS_WINDOW) {
-                feedback = "FALLO";
-                points = 0;
-                combo = 0;
-                hitNote.setHitType(Note.HitType.MISS);
-                showFeedback(feedback, Color.RED);
-            } else {
-                return;
-            }
-            
-            hitNote.setHit(true);
-            score += points;
-            maxCombo = Math.max(maxCombo, combo);
-            
-            if (hitSound != null) {
-                hitSound.play();
-            }
-        }
-    }
-    
-    private Note findClosestHittableNote(int lane) {
-        Note closestNote = null;
-        float closestDistance = Float.MAX_VALUE;
-        
-        for (Note note : activeNotes) {
-            if (note.getLane() == lane && !note.isHit()) {
-                float distance = Math.abs(note.getTime() - gameTime);
-                if (distance <= MISS_WINDOW && distance < closestDistance) {
-                    closestDistance = distance;
-                    closestNote = note;
-                }
-            }
-        }
-        
-        return closestNote;
+    // Resultado de la partida con las ventanas de juicio del mapa (con el hilo de juicio detenido)
+    private void logResults() {
+        if (!loop.isStarted()) return;
+        JudgementEngine judgement = loop.getSimulation().getJudgement();
+        JudgementWindows windows = loop.getChart().getJudgementWindows();
+        System.out.println(String.format(
+            "Results: score=%d maxCombo=%d perfect=%d great=%d good=%d miss=%d "
+                + "(judge difficulty %.1f, windows %.0f/%.0f/%.0f/%.0f ms)",
+            judgement.getScore(), judgement.getMaxCombo(),
+            judgement.getJudgementCount(Note.HitType.PERFECT), judgement.getJudgementCount(Note.HitType.GREAT),
+            judgement.getJudgementCount(Note.HitType.GOOD), judgement.getJudgementCount(Note.HitType.MISS),
+            windows.getDifficulty(), windows.getPerfectWindow() * 1000f, windows.getGreatWindow() * 1000f,
+            windows.getGoodWindow() * 1000f, windows.getMissWindow() * 1000f));
     }
     
-    private void releaseHoldNote(int lane) {
-        for (Note note : activeNotes) {
-            if (note.getLane() == lane && note.getType() == Note.NoteType.HOLD && note.isHit()) {
-                float currentTime = gameTime;
-                float holdEndTime = note.getEndTime();
-                
-                if (currentTime < holdEndTime - GOOD_WINDOW) {
-                    combo = 0;
-                } else if (currentTime <= holdEndTime + GOOD_WINDOW) {
-                    int holdPoints = 2;
-                    score += holdPoints;
-                }
-                break;
-            }
+    // Resumen de memoria reservada por frame en régimen estable (con el hilo de juicio detenido)
+    private void logAllocations() {
+        if (renderAllocations == null) return;
+        if (renderAllocations.getSteadyFrames() > 0) {
+            System.out.println(renderAllocations.summary("Render thread"));
         }
-    }
-    
-    private void updateHoldNotes() {
-        for (Note note : activeNotes) {
-            if (note.getType() == Note.NoteType.HOLD && note.isHit()) {
-                int lane = note.getLane();
-                float currentTime = gameTime;
-                
-                if (currentTime >= note.getTime() && currentTime <= note.getEndTime()) {
-                    if (!laneHolding[lane]) {
-                        combo = 0;
-                    }
-                }
-            }
+        AllocationMeter judgementAllocations = loop.getJudgementThread().getAllocations();
+        if (judgementAllocations != null && judgementAllocations.getSteadyFrames() > 0) {
+            System.out.println(judgementAllocations.summary("Judgement thread"));
         }
+        renderAllocations.reset();
     }
     
     private void togglePause() {
@@ -675,6 +410,11 @@ public class GameplayScreen implements Screen {
                 gameMusic.play();
             }
         }
+        if (gamePaused) {
+            songClock.pause();
+        } else if (loop.isStarted()) {
+            songClock.resume();
+        }
     }
     
     private void returnToMenu() {
@@ -686,11 +426,36 @@ public class GameplayScreen implements Screen {
     
     @Override
     public void resize(int width, int height) {
-        float gameAreaWidth = width * 0.6f;
-        laneWidth = gameAreaWidth / (float) LANES;
-        laneStartX = (width - gameAreaWidth) / 2f;
-        hitLineY = height * 0.2f;
-        noteSpeed = height * 0.4f;
+        layout(width, height);
+    }
+    
+    private void layout(float width, float height) {
+        loop.layout(width, height, beatmap.getTitle(), beatmap.getArtist());
+        rebuildPlayfieldLayer();
+    }
+    
+    private GameplayLoop.Controls createControls() {
+        return new GameplayLoop.Controls() {
+            @Override
+            public void onExit() {
+                returnToMenu();
+            }
+            
+            @Override
+            public void onTogglePause() {
+                togglePause();
+            }
+            
+            @Override
+            public void onRetry() {
+                retry();
+            }
+            
+            @Override
+            public void onWatchReplay() {
+                watchReplay();
+            }
+        };
     }
     
     @Override
@@ -698,26 +463,57 @@ public class GameplayScreen implements Screen {
         if (gameMusic != null) {
             gameMusic.pause();
         }
+        songClock.pause();
         gamePaused = true;
     }
     
+    // El tiempo en segundo plano no es un tirón: se descarta el frame de la vuelta
     @Override
     public void resume() {
+        if (hitchDetector != null) {
+            hitchDetector.reset();
+        }
     }
     
     @Override
     public void hide() {
+        loop.stop();
+        logResults();
+        logAllocations();
+        saveReplay();
         if (gameMusic != null) {
             gameMusic.stop();
         }
+        if (Gdx.input.getInputProcessor() == inputQueue) {
+            Gdx.input.setInputProcessor(null);
+        }
+        disposeHitchDetector();
+    }
+    
+    private void disposeHitchDetector() {
+        if (hitchDetector != null) {
+            hitchDetector.dispose();
+            hitchDetector = null;
+        }
     }
     
     @Override
     public void dispose() {
+        loop.stop();
+        disposeHitchDetector();
+        
         if (shapeRenderer != null) {
             shapeRenderer.dispose();
         }
         
+        if (noteSprites != null) {
+            noteSprites.dispose();
+        }
+        
+        if (playfieldBuffer != null) {
+            playfieldBuffer.dispose();
+        }
+        
         if (backgroundImage != null) {
             backgroundImage.dispose();
         }
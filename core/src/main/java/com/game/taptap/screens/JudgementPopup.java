@@ -0,0 +1,36 @@
+package com.game.taptap.screens;
+
+import com.badlogic.gdx.graphics.Color;
+import com.game.taptap.gameplay.Note;
+
+// Textos emergentes de juicio que muestra el HUD durante el gameplay
+public enum JudgementPopup {
+    PERFECT("PERFECTO", Color.YELLOW, 1.2f),
+    GREAT("GRANDE", Color.GREEN, 1.2f),
+    GOOD("BUENO", Color.CYAN, 1.1f),
+    MISS("FALLO", Color.RED, 1.0f);
+
+    private final String text;
+    private final Color color;
+    private final float scale;
+
+    JudgementPopup(String text, Color color, float scale) {
+        this.text = text;
+        this.color = color;
+        this.scale = scale;
+    }
+
+    public String getText() { return text; }
+    public Color getColor() { return color; }
+    public float getScale() { return scale; }
+
+    // Popup de cada tipo de golpe
+    public static JudgementPopup of(Note.HitType hitType) {
+        switch (hitType) {
+            case PERFECT: return PERFECT;
+            case GREAT: return GREAT;
+            case GOOD: return GOOD;
+            default: return MISS;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.game.taptap.screens;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Disposable;
+
+// Sprites de notas, receptores y cuerpos HOLD rasterizados una sola vez en una textura
+// (una fila por carril). Así cada nota es un solo quad del SpriteBatch en lugar de varios
+// círculos teselados por ShapeRenderer en cada frame. Se reconstruye al cambiar el tamaño.
+public class NoteSprites implements Disposable {
+    private static final int PADDING = 2;
+    private static final int DISC_RADIUS = 64;
+
+    private final Color[] laneColors;
+    private final TextureRegion[] notes;
+    private final TextureRegion[] receptors;
+    private final TextureRegion[] pressedReceptors;
+    private final TextureRegion[] holdBodies;
+    private final TextureRegion disc;
+    private Texture texture;
+    private float builtLaneWidth = -1f;
+
+    public NoteSprites(Color[] laneColors) {
+        this.laneColors = laneColors;
+        int lanes = laneColors.length;
+        this.notes = new TextureRegion[lanes];
+        this.receptors = new TextureRegion[lanes];
+        this.pressedReceptors = new TextureRegion[lanes];
+        this.holdBodies = new TextureRegion[lanes];
+        for (int lane = 0; lane < lanes; lane++) {
+            notes[lane] = new TextureRegion();
+            receptors[lane] = new TextureRegion();
+            pressedReceptors[lane] = new TextureRegion();
+            holdBodies[lane] = new TextureRegion();
+        }
+        this.disc = new TextureRegion();
+    }
+
+    // Rasteriza todos los sprites para el ancho de carril dado (mismas proporciones que el gameplay)
+    public void build(float laneWidth) {
+        if (texture != null && laneWidth == builtLaneWidth) return;
+        builtLaneWidth = laneWidth;
+
+        int noteRadius = Math.max(2, Math.round(laneWidth * 0.15f));
+        int receptorRadius = Math.max(2, Math.round(laneWidth * 0.18f));
+        int trailWidth = Math.max(2, Math.round(noteRadius * 1.2f));
+
+        int noteCell = cellSize(noteRadius + 2);
+        int receptorCell = cellSize(receptorRadius * 2);
+        int pressedCell = cellSize(Math.round(receptorRadius * 1.3f));
+        int holdCell = trailWidth + 4 + PADDING * 2;
+        int rowHeight = Math.max(noteCell, Math.max(receptorCell, pressedCell));
+        int discCell = cellSize(DISC_RADIUS);
+
+        int width = Math.max(noteCell + receptorCell + pressedCell + holdCell, discCell);
+        int height = rowHeight * laneColors.length + discCell;
+
+        Pixmap pixmap = new Pixmap(width, height, Pixmap.Format.RGBA8888);
+        pixmap.setBlending(Pixmap.Blending.SourceOver);
+        pixmap.setColor(0f, 0f, 0f, 0f);
+        pixmap.fill();
+
+        int[] noteX = new int[laneColors.length];
+        int[] rowY = new int[laneColors.length];
+        for (int lane = 0; lane < laneColors.length; lane++) {
+            Color color = laneColors[lane];
+            int y = lane * rowHeight;
+            int x = 0;
+            rowY[lane] = y;
+
+            drawNote(pixmap, x + noteCell / 2, y + noteCell / 2, noteRadius, color);
+            noteX[lane] = x;
+            x += noteCell;
+
+            drawReceptor(pixmap, x + receptorCell / 2, y + receptorCell / 2, receptorRadius, color);
+            x += receptorCell;
+
+            drawPressedReceptor(pixmap, x + pressedCell / 2, y + pressedCell / 2, receptorRadius, color);
+            x += pressedCell;
+
+            drawHoldBody(pixmap, x + PADDING, y + PADDING, trailWidth, color);
+        }
+
+        int discY = rowHeight * laneColors.length;
+        pixmap.setColor(1f, 1f, 1f, 1f);
+        pixmap.fillCircle(discCell / 2, discY + discCell / 2, DISC_RADIUS);
+
+        if (texture != null) {
+            texture.dispose();
+        }
+        texture = new Texture(pixmap);
+        texture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        pixmap.dispose();
+
+        for (int lane = 0; lane < laneColors.length; lane++) {
+            int y = rowY[lane];
+            int x = noteX[lane];
+            notes[lane].setRegion(texture);
+            notes[lane].setRegion(x, y, noteCell, noteCell);
+            x += noteCell;
+            receptors[lane].setRegion(texture);
+            receptors[lane].setRegion(x, y, receptorCell, receptorCell);
+            x += receptorCell;
+            pressedReceptors[lane].setRegion(texture);
+            pressedReceptors[lane].setRegion(x, y, pressedCell, pressedCell);
+            x += pressedCell;
+            // Solo la fila central del cuerpo HOLD: al estirarlo en vertical no se mezcla con el relleno
+            holdBodies[lane].setRegion(texture);
+            holdBodies[lane].setRegion(x + PADDING, y + PADDING + 1, trailWidth + 4, 1);
+        }
+        disc.setRegion(texture);
+        disc.setRegion(0, discY, discCell, discCell);
+    }
+
+    // Celda cuadrada que contiene un círculo del radio dado más el relleno
+    private static int cellSize(int radius) {
+        return radius * 2 + 1 + PADDING * 2;
+    }
+
+    private static void drawNote(Pixmap pixmap, int cx, int cy, int radius, Color color) {
+        pixmap.setColor(1f, 1f, 1f, 1f);
+        pixmap.fillCircle(cx, cy, radius + 2);
+        pixmap.setColor(color.r, color.g, color.b, 1f);
+        pixmap.fillCircle(cx, cy, radius);
+        // El brillo va por debajo del centro (el eje Y del Pixmap crece hacia abajo)
+        pixmap.setColor(1f, 1f, 1f, 0.4f);
+        pixmap.fillCircle(cx, cy + Math.round(radius * 0.2f), Math.max(1, Math.round(radius * 0.3f)));
+    }
+
+    private static void drawReceptor(Pixmap pixmap, int cx, int cy, int baseRadius, Color color) {
+        pixmap.setColor(color.r, color.g, color.b, 0.05f);
+        pixmap.fillCircle(cx, cy, baseRadius * 2);
+        pixmap.setColor(color.r, color.g, color.b, 0.1f);
+        pixmap.fillCircle(cx, cy, Math.round(baseRadius * 1.5f));
+        pixmap.setColor(color.r, color.g, color.b, 0.15f);
+        pixmap.fillCircle(cx, cy, Math.round(baseRadius * 1.2f));
+        pixmap.setColor(color.r, color.g, color.b, 1f);
+        pixmap.fillCircle(cx, cy, baseRadius + 1);
+        pixmap.setColor(1f, 1f, 1f, 1f);
+        pixmap.fillCircle(cx, cy, baseRadius);
+        pixmap.setColor(0.8f, 0.8f, 0.8f, 0.4f);
+        pixmap.fillCircle(cx, cy, Math.round(baseRadius * 0.7f));
+    }
+
+    private static void drawPressedReceptor(Pixmap pixmap, int cx, int cy, int baseRadius, Color color) {
+        pixmap.setColor(color.r, color.g, color.b, 0.6f);
+        pixmap.fillCircle(cx, cy, Math.round(baseRadius * 1.3f));
+        pixmap.setColor(0.9f, 0.9f, 0.9f, 1f);
+        pixmap.fillCircle(cx, cy, baseRadius);
+        pixmap.setColor(0.8f, 0.8f, 0.8f, 0.4f);
+        pixmap.fillCircle(cx, cy, Math.round(baseRadius * 0.7f));
+    }
+
+    // Franja de 3 filas: bordes blancos, relleno del color del carril y línea central tenue
+    private static void drawHoldBody(Pixmap pixmap, int x, int y, int trailWidth, Color color) {
+        pixmap.setColor(1f, 1f, 1f, 0.9f);
+        pixmap.fillRectangle(x, y, 2, 3);
+        pixmap.fillRectangle(x + 2 + trailWidth, y, 2, 3);
+        pixmap.setColor(color.r, color.g, color.b, 0.8f);
+        pixmap.fillRectangle(x + 2, y, trailWidth, 3);
+        pixmap.setColor(1f, 1f, 1f, 0.2f);
+        pixmap.fillRectangle(x + 2 + trailWidth / 2 - 1, y, 2, 3);
+    }
+
+    public void drawNote(Batch batch, int lane, float x, float y) {
+        drawCentered(batch, notes[lane], x, y);
+    }
+
+    public void drawReceptor(Batch batch, int lane, float x, float y) {
+        drawCentered(batch, receptors[lane], x, y);
+    }
+
+    public void drawPressedReceptor(Batch batch, int lane, float x, float y) {
+        drawCentered(batch, pressedReceptors[lane], x, y);
+    }
+
+    // Cuerpo HOLD desde la cabeza (y) hasta el final (endY), centrado en x
+    public void drawHoldBody(Batch batch, int lane, float x, float y, float endY) {
+        TextureRegion body = holdBodies[lane];
+        float width = body.getRegionWidth();
+        batch.draw(body, x - width / 2f, y, width, endY - y);
+    }
+
+    // Disco blanco escalado al radio dado; se tiñe con el color actual del batch
+    public void drawDisc(Batch batch, float x, float y, float radius) {
+        float size = radius * 2f * disc.getRegionWidth() / (DISC_RADIUS * 2 + 1);
+        batch.draw(disc, x - size / 2f, y - size / 2f, size, size);
+    }
+
+    private static void drawCentered(Batch batch, TextureRegion region, float x, float y) {
+        float width = region.getRegionWidth();
+        float height = region.getRegionHeight();
+        batch.draw(region, x - width / 2f, y - height / 2f, width, height);
+    }
+
+    @Override
+    public void dispose() {
+        if (texture != null) {
+            texture.dispose();
+            texture = null;
+        }
+    }
+}
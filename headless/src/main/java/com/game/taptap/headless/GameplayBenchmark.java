@@ -0,0 +1,239 @@
+package com.game.taptap.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.game.taptap.debug.FlightEvents;
+import com.game.taptap.debug.AllocationMeter;
+import com.game.taptap.gameplay.AutoplayInput;
+import com.game.taptap.gameplay.Beatmap;
+import com.game.taptap.gameplay.CompiledChart;
+import com.game.taptap.gameplay.JudgementEngine;
+import com.game.taptap.gameplay.LaneInputQueue;
+import com.game.taptap.gameplay.Note;
+import com.game.taptap.gameplay.PlayState;
+import com.game.taptap.gameplay.ScrollMap;
+import com.game.taptap.gameplay.SongClock;
+import com.game.taptap.screens.GameplayHud;
+import com.game.taptap.screens.GameplayLoop;
+import com.game.taptap.screens.NoteSprites;
+
+import java.util.Random;
+
+// Benchmark de gameplay sin ventana: genera mapas sintéticos y los juega con el bot de
+// autoplay a través de GameplayLoop, el mismo bucle por frame de GameplayScreen (cuenta
+// regresiva, hilo de juicio en modo inline, eventos a PlayState, aparición y retiro de
+// notas, teclas de control y dibujo de notas, efectos y HUD sobre un NullBatch), tan
+// rápido como se pueda. Solo quedan fuera el fondo y la capa estática del FrameBuffer.
+// Reporta segundos simulados por segundo real y bytes reservados por frame, y termina
+// con código 1 si no se cumplen los umbrales pedidos (sirve como gate de regresión).
+public class GameplayBenchmark extends ApplicationAdapter {
+    private static final int LANES = GameplayLoop.LANES;
+    private static final double FRAME_SECONDS = 1.0 / 60.0;
+    private static final long FRAME_NANOS = (long) (FRAME_SECONDS * 1e9);
+    private static final float SCREEN_WIDTH = 1920f;
+    private static final float SCREEN_HEIGHT = 1080f;
+
+    // Las teclas de control no llegan en headless; igual se consultan en cada frame
+    private static final GameplayLoop.Controls NO_CONTROLS = new GameplayLoop.Controls() {
+        @Override
+        public void onExit() {
+        }
+
+        @Override
+        public void onTogglePause() {
+        }
+
+        @Override
+        public void onRetry() {
+        }
+
+        @Override
+        public void onWatchReplay() {
+        }
+    };
+
+    // Opciones de línea de comandos
+    public static class Options {
+        int[] noteCounts = {10_000, 100_000, 1_000_000};
+        float notesPerSecond = 40f;
+        float jitter = 0.02f;
+        long seed = 1L;
+        double minSpeed = 0.0;
+        double maxAllocPerFrame = -1.0;
+        int warmupFrames = 120;
+
+        public static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--notes":
+                        String[] counts = value.split(",");
+                        options.noteCounts = new int[counts.length];
+                        for (int c = 0; c < counts.length; c++) {
+                            options.noteCounts[c] = Integer.parseInt(counts[c].trim());
+                        }
+                        break;
+                    case "--density": options.notesPerSecond = Float.parseFloat(value); break;
+                    case "--jitter": options.jitter = Float.parseFloat(value); break;
+                    case "--seed": options.seed = Long.parseLong(value); break;
+                    case "--min-speed": options.minSpeed = Double.parseDouble(value); break;
+                    case "--max-alloc": options.maxAllocPerFrame = Double.parseDouble(value); break;
+                    case "--warmup": options.warmupFrames = Integer.parseInt(value); break;
+                    default:
+                        System.err.println("Unknown option: " + args[i]);
+                }
+            }
+            return options;
+        }
+    }
+
+    private final Options options;
+    private boolean failed;
+    private BitmapFont font;
+    private NullBatch batch;
+
+    public GameplayBenchmark(Options options) {
+        this.options = options;
+    }
+
+    @Override
+    public void create() {
+        // Inicializa la fachada JFR fuera de la medición (el juego lo hace en el primer frame)
+        System.out.println("JFR events: " + (FlightEvents.isAvailable() ? "available" : "unavailable"));
+        try {
+            NullGL.install();
+            font = new BitmapFont();
+            batch = new NullBatch();
+            for (int noteCount : options.noteCounts) {
+                run(noteCount);
+            }
+        } catch (Exception e) {
+            System.err.println("Benchmark failed: " + e.getMessage());
+            e.printStackTrace();
+            failed = true;
+        }
+        Gdx.app.exit();
+    }
+
+    private void run(int noteCount) {
+        Beatmap beatmap = createSyntheticBeatmap(noteCount, options.notesPerSecond, options.seed);
+
+        long compileStart = System.nanoTime();
+        CompiledChart chart = CompiledChart.compile(beatmap, LANES);
+        ScrollMap scrollMap = ScrollMap.build(beatmap.getTimingPoints());
+        double compileMs = (System.nanoTime() - compileStart) / 1e6;
+
+        // El mismo bucle que GameplayScreen, con el hilo de juicio inline y el reloj en
+        // tiempo virtual (un frame de 60 Hz por iteración, sin esperar)
+        SongClock songClock = new SongClock();
+        LaneInputQueue inputQueue = new LaneInputQueue();
+        NoteSprites noteSprites = new NoteSprites(GameplayLoop.LANE_COLORS);
+        GameplayLoop loop = new GameplayLoop(songClock, inputQueue, noteSprites, true);
+        loop.setHud(new GameplayHud(font));
+        loop.useChart(chart, scrollMap);
+        loop.layout(SCREEN_WIDTH, SCREEN_HEIGHT, beatmap.getTitle(), beatmap.getArtist());
+        loop.setScriptedInput(new AutoplayInput(chart, options.jitter, options.seed));
+        loop.restart();
+
+        double duration = GameplayLoop.COUNTDOWN_SECONDS + chart.getDuration() + 1.0;
+        long frameCount = (long) Math.ceil(duration / FRAME_SECONDS);
+        long baseNanos = System.nanoTime();
+
+        AllocationMeter allocations = new AllocationMeter(options.warmupFrames);
+        allocations.frame();
+        long wallStart = System.nanoTime();
+        for (long frame = 0; frame < frameCount; frame++) {
+            loop.update((float) FRAME_SECONDS, baseNanos + frame * FRAME_NANOS);
+            loop.handleControls(NO_CONTROLS);
+            batch.begin();
+            loop.drawHitCircleEffects(batch);
+            loop.drawNotes(batch);
+            loop.drawHud(batch);
+            batch.end();
+            allocations.frame();
+        }
+        long wallNanos = System.nanoTime() - wallStart;
+        loop.stop();
+        noteSprites.dispose();
+
+        double wallSeconds = wallNanos / 1e9;
+        double speed = duration / wallSeconds;
+        boolean measured = AllocationMeter.isSupported() && allocations.getSteadyFrames() > 0;
+
+        JudgementEngine judgement = loop.getSimulation().getJudgement();
+        PlayState playState = loop.getPlayState();
+        int holdsCompleted = 0;
+        int holdsBroken = 0;
+        for (int i = 0; i < chart.getNoteCount(); i++) {
+            byte holdState = playState.getHoldState(i);
+            if (holdState == PlayState.HOLD_COMPLETED) holdsCompleted++;
+            else if (holdState == PlayState.HOLD_BROKEN) holdsBroken++;
+        }
+
+        System.out.println(String.format(
+            "notes=%d frames=%d wall=%.1f ms sim/wall=%.1fx alloc/frame=%s compile=%.1f ms "
+                + "score=%d maxCombo=%d perfect=%d great=%d good=%d miss=%d holds=%d/%d quads=%d",
+            noteCount, frameCount, wallNanos / 1e6, speed,
+            measured ? String.format("%.1f B (max %d B)", allocations.getAverageBytes(), allocations.getMaxBytes()) : "n/a",
+            compileMs,
+            judgement.getScore(), judgement.getMaxCombo(),
+            judgement.getJudgementCount(Note.HitType.PERFECT), judgement.getJudgementCount(Note.HitType.GREAT),
+            judgement.getJudgementCount(Note.HitType.GOOD), judgement.getJudgementCount(Note.HitType.MISS),
+            holdsCompleted, holdsCompleted + holdsBroken, batch.getQuadCount()));
+
+        if (speed < options.minSpeed) {
+            System.err.println("FAIL: sim/wall " + speed + " below " + options.minSpeed);
+            failed = true;
+        }
+        // Gate de memoria sobre el promedio en régimen estable: con C2 puede aparecer algún
+        // frame aislado con unos cientos de bytes (desoptimizaciones), que no es basura del juego
+        if (options.maxAllocPerFrame >= 0) {
+            if (!measured) {
+                System.err.println("FAIL: per-thread allocation counters are not supported by this JVM");
+                failed = true;
+            } else if (allocations.getAverageBytes() > options.maxAllocPerFrame) {
+                System.err.println("FAIL: " + allocations.summary("gameplay loop")
+                    + ", budget " + options.maxAllocPerFrame + " B/frame");
+                failed = true;
+            }
+        }
+    }
+
+    // Mapa sintético: notas a densidad fija rotando carriles, 1 de cada 8 es HOLD (con
+    // ticks), y cambios de velocidad de scroll cada 30 segundos
+    private static Beatmap createSyntheticBeatmap(int noteCount, float notesPerSecond, long seed) {
+        Random random = new Random(seed);
+        float laneSpacing = LANES / notesPerSecond;
+        Beatmap.Builder builder = new Beatmap.Builder(noteCount)
+            .title("Synthetic " + noteCount)
+            .holdTickInterval(laneSpacing * 0.1f);
+        for (int i = 0; i < noteCount; i++) {
+            float time = 1f + i / notesPerSecond;
+            int lane = i % LANES;
+            Note note;
+            if (random.nextInt(8) == 0) {
+                note = new Note(time, lane, Note.NoteType.HOLD, time + laneSpacing * 0.5f);
+            } else {
+                note = new Note(time, lane, Note.NoteType.TAP);
+            }
+            builder.addNote(note);
+        }
+        float duration = 1f + noteCount / notesPerSecond;
+        for (int section = 0; section * 30f < duration; section++) {
+            builder.addTimingPoint(new Beatmap.TimingPoint(section * 30f, 120f, section % 2 == 0 ? 1f : 1.5f));
+        }
+        return builder.build();
+    }
+
+    @Override
+    public void dispose() {
+        if (font != null) {
+            font.dispose();
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+}
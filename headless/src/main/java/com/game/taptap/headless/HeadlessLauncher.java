@@ -0,0 +1,22 @@
+package com.game.taptap.headless;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+
+/** Launches the headless gameplay benchmark (no window, no audio, no GL). */
+public class HeadlessLauncher {
+    public static void main(String[] args) {
+        createApplication(args);
+    }
+
+    private static HeadlessApplication createApplication(String[] args) {
+        return new HeadlessApplication(new GameplayBenchmark(GameplayBenchmark.Options.parse(args)), getDefaultConfiguration());
+    }
+
+    private static HeadlessApplicationConfiguration getDefaultConfiguration() {
+        HeadlessApplicationConfiguration configuration = new HeadlessApplicationConfiguration();
+        //// When this value is negative, render() is never called; the benchmark runs entirely in create().
+        configuration.updatesPerSecond = -1;
+        return configuration;
+    }
+}
@@ -0,0 +1,33 @@
+package com.game.taptap.headless;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+
+// GL20 que no hace nada, para crear texturas sin contexto (fuente del HUD y sprites de
+// notas del benchmark). Solo se usa al preparar cada corrida; el dibujo por frame va a
+// NullBatch y no toca GL. Las consultas devuelven 0, false o "".
+final class NullGL {
+    private NullGL() {
+    }
+
+    // Instala el GL vacío si el backend no puso uno (el headless de libGDX no lo hace)
+    static void install() {
+        if (Gdx.gl != null) return;
+        InvocationHandler handler = (proxy, method, args) -> defaultValue(method.getReturnType());
+        GL20 gl = (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[] { GL20.class }, handler);
+        Gdx.gl = gl;
+        Gdx.gl20 = gl;
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == int.class) return 0;
+        if (type == boolean.class) return false;
+        if (type == float.class) return 0f;
+        if (type == long.class) return 0L;
+        if (type == String.class) return "";
+        return null;
+    }
+}